@@ -14,6 +14,7 @@ repositories {
 }
 
 val junitVersion = "5.10.2"
+val jmhVersion = "1.37"
 
 java {
     toolchain {
@@ -30,6 +31,41 @@ application {
     mainClass.set("tecnm.celaya.edu.mx.despachadorapp.HelloApplication")
 }
 
+// Simulación por lotes sin interfaz gráfica: ./gradlew runBatch --args="--random 100000 --output metricas.csv"
+tasks.register<JavaExec>("runBatch") {
+    group = "application"
+    description = "Ejecuta los algoritmos de planificación sin interfaz gráfica y escribe las métricas en CSV."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainModule.set("tecnm.celaya.edu.mx.despachadorapp")
+    mainClass.set("tecnm.celaya.edu.mx.despachadorapp.BatchApplication")
+}
+
+// Barrido de parámetros en paralelo: ./gradlew runSweep --args="--quanta 1-10 --seeds 32 --output barrido.csv"
+tasks.register<JavaExec>("runSweep") {
+    group = "application"
+    description = "Simula en paralelo cada combinación de algoritmo, quantum y semilla y escribe las estadísticas en CSV."
+    classpath = sourceSets["main"].runtimeClasspath
+    mainModule.set("tecnm.celaya.edu.mx.despachadorapp")
+    mainClass.set("tecnm.celaya.edu.mx.despachadorapp.SweepApplication")
+}
+
+// Microbenchmarks de JMH en src/jmh/java, fuera del módulo de la aplicación y del build normal:
+// ./gradlew jmh  o  ./gradlew jmh --args="EngineBenchmark -p size=100000 -prof gc"
+sourceSets {
+    create("jmh") {
+        compileClasspath += sourceSets["main"].output + sourceSets["main"].compileClasspath
+        runtimeClasspath += sourceSets["main"].output + sourceSets["main"].runtimeClasspath
+    }
+}
+
+tasks.register<JavaExec>("jmh") {
+    group = "verification"
+    description = "Ejecuta los benchmarks de JMH del motor de simulación, con el perfilador de GC por defecto."
+    classpath = sourceSets["jmh"].runtimeClasspath
+    mainClass.set("org.openjdk.jmh.Main")
+    args = listOf("-prof", "gc")
+}
+
 javafx {
     version = "17.0.6"
     modules = listOf("javafx.controls", "javafx.fxml")
@@ -44,12 +80,30 @@ dependencies {
     implementation("org.kordamp.bootstrapfx:bootstrapfx-core:0.4.0")
     testImplementation("org.junit.jupiter:junit-jupiter-api:${junitVersion}")
     testRuntimeOnly("org.junit.jupiter:junit-jupiter-engine:${junitVersion}")
+    testRuntimeOnly(platform("org.junit:junit-bom:${junitVersion}"))
+    testRuntimeOnly("org.junit.platform:junit-platform-launcher")
+    "jmhImplementation"("org.openjdk.jmh:jmh-core:${jmhVersion}")
+    "jmhAnnotationProcessor"("org.openjdk.jmh:jmh-generator-annprocess:${jmhVersion}")
 }
 
 tasks.withType<Test> {
     useJUnitPlatform()
 }
 
+// Las pruebas están en el mismo paquete que la aplicación y la prueban por dentro, así que se compilan y ejecutan
+// en el classpath en lugar de parchar el módulo.
+tasks.compileTestJava {
+    extensions.configure<org.javamodularity.moduleplugin.extensions.CompileTestModuleOptions> {
+        isCompileOnClasspath = true
+    }
+}
+
+tasks.test {
+    extensions.configure<org.javamodularity.moduleplugin.extensions.TestModuleOptions> {
+        runOnClasspath = true
+    }
+}
+
 // --- Configuración para crear el Instalador Nativo ---
 jlink {
     options.set(listOf("--strip-debug", "--compress", "2", "--no-header-files", "--no-man-pages"))
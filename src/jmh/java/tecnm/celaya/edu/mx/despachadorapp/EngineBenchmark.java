@@ -0,0 +1,90 @@
+package tecnm.celaya.edu.mx.despachadorapp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide el costo del motor de simulación con cada algoritmo, tamaño de carga y densidad de llegadas.
+ * <p>
+ * {@link #fullRun()} mide una corrida por lotes completa (cargar y simular hasta el final, sin checkpoints), como
+ * la de {@link BatchApplication}. {@link #step()} mide un avance de un tick con checkpoints, como el que pide la
+ * vista en cada cuadro; al llegar al final la simulación se reinicia, así que el reinicio queda amortizado.
+ * <p>
+ * {@code maxGap} es la separación máxima entre llegadas: con 0 todos los procesos llegan juntos y la cola de
+ * listos crece hasta el tamaño de la carga; con 10 la CPU pasa tiempo ociosa y la cola se mantiene corta.
+ * Correr con {@code -prof gc} (lo que hace la tarea {@code jmh} por defecto) reporta además la tasa de asignación.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class EngineBenchmark {
+
+    @Param({"FIFO", "SJF", "LJF", "LIFO", "ROUND_ROBIN_LIFO"})
+    public Algorithm algorithm;
+
+    @Param({"10", "1000", "100000", "10000000"})
+    public int size;
+
+    @Param({"0", "2", "10"})
+    public int maxGap;
+
+    private List<Process> workload;
+    private SimulationEngine batchEngine;
+    private SimulationEngine steppingEngine;
+    private int endTick;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        workload = generateWorkload(size, maxGap, 42);
+        batchEngine = new SimulationEngine(algorithm, SimulationEngine.DEFAULT_CHECKPOINT_INTERVAL, 0);
+
+        steppingEngine = new SimulationEngine(algorithm);
+        steppingEngine.load(Process.copyAll(workload));
+        endTick = steppingEngine.getEndTickBound();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public int fullRun() {
+        batchEngine.load(workload);
+        batchEngine.runToCompletion();
+        return batchEngine.getTime();
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public int step() {
+        int next = steppingEngine.getTime() + 1;
+        if (next > endTick) {
+            steppingEngine.reset();
+            next = 0;
+        }
+        steppingEngine.advanceTo(next);
+        return steppingEngine.getTime();
+    }
+
+    /**
+     * Genera una carga reproducible con las duraciones y tamaños por defecto de {@link WorkloadGenerator}, pero con
+     * llegadas separadas de 0 a {@code maxGap} segundos.
+     */
+    static List<Process> generateWorkload(int count, int maxGap, long seed) {
+        return new WorkloadGenerator(seed)
+                .setArrivalGaps(WorkloadGenerator.Distribution.uniform(0, maxGap))
+                .generate(count);
+    }
+}
@@ -0,0 +1,75 @@
+package tecnm.celaya.edu.mx.despachadorapp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide lo que calcula {@link GanttChart} en cada frame, sin el dibujo: el resumen por pixel de
+ * {@link GanttTimeline#aggregate} y la búsqueda de los segmentos visibles. Con 10⁵ procesos de 5 a 15 segundos
+ * la corrida dura unos 10⁶ ticks; a 60 fps un frame dispone de unos 16 ms.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class GanttBenchmark {
+
+    @Param({"FIFO", "ROUND_ROBIN_LIFO"})
+    public Algorithm algorithm;
+
+    @Param({"100000"})
+    public int size;
+
+    /** Ancho del diagrama en pixeles. */
+    @Param({"1920"})
+    public int columns;
+
+    private GanttTimeline timeline;
+    private int[] pids;
+    private float[] busy;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        timeline = GanttTimeline.simulate(algorithm, new WorkloadGenerator(42)
+                .setDurations(WorkloadGenerator.Distribution.uniform(5, 15))
+                .generate(size));
+        pids = new int[columns];
+        busy = new float[columns];
+    }
+
+    /** La corrida completa a la vista. */
+    @Benchmark
+    public float[] aggregateFullView() {
+        timeline.aggregate(0, (double) timeline.getEndTick() / columns, columns, pids, busy);
+        return busy;
+    }
+
+    /** Una centésima de la corrida, todavía con varios segmentos por pixel. */
+    @Benchmark
+    public float[] aggregateZoomed() {
+        double span = timeline.getEndTick() / 100.0;
+        timeline.aggregate(timeline.getEndTick() / 2.0, span / columns, columns, pids, busy);
+        return busy;
+    }
+
+    /** Los segmentos de una vista de un pixel por tick, que se dibujan uno por uno. */
+    @Benchmark
+    public int visibleSegments() {
+        double from = timeline.getEndTick() / 2.0;
+        return timeline.firstStartingFrom(from + columns) - timeline.firstEndingAfter(from);
+    }
+}
@@ -0,0 +1,61 @@
+package tecnm.celaya.edu.mx.despachadorapp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide cómo cambia el costo de una corrida completa con el quantum. Un quantum corto produce más expulsiones y,
+ * por lo tanto, más eventos y más operaciones sobre la cola de listos por proceso.
+ * <p>
+ * El quantum se aplica con {@link SchedulingPolicy#withQuantum(int)}, igual que en {@link SweepApplication};
+ * 0 significa sin expulsión.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class QuantumBenchmark {
+
+    @Param({"FIFO", "SJF", "ROUND_ROBIN_LIFO"})
+    public Algorithm algorithm;
+
+    @Param({"0", "1", "2", "3", "5", "8"})
+    public int quantum;
+
+    @Param({"100000"})
+    public int size;
+
+    @Param({"2"})
+    public int maxGap;
+
+    private List<Process> workload;
+    private SimulationEngine engine;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        workload = EngineBenchmark.generateWorkload(size, maxGap, 42);
+        engine = new SimulationEngine(algorithm.withQuantum(quantum), SimulationEngine.DEFAULT_CHECKPOINT_INTERVAL, 0);
+    }
+
+    @Benchmark
+    public int fullRun() {
+        engine.load(workload);
+        engine.runToCompletion();
+        return engine.getTime();
+    }
+}
@@ -0,0 +1,41 @@
+package tecnm.celaya.edu.mx.despachadorapp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mide cuánto tarda {@link WorkloadGenerator} en generar una carga completa con cada distribución de llegadas.
+ * La generación usa el {@link java.util.concurrent.ForkJoinPool} común, así que escala con los procesadores.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Benchmark)
+public class WorkloadGeneratorBenchmark {
+
+    @Param({"1000000", "10000000"})
+    public int size;
+
+    @Param({"uniform:0:2", "poisson:1", "pareto:1:1.5"})
+    public String arrivals;
+
+    @Benchmark
+    public List<Process> generate() {
+        return new WorkloadGenerator(42)
+                .setArrivalGaps(WorkloadGenerator.Distribution.parse(arrivals))
+                .generate(size);
+    }
+}
@@ -0,0 +1,100 @@
+package tecnm.celaya.edu.mx.despachadorapp;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+
+/**
+ * Los procesos LIFO que ya llegaron pero todavía no caben en la memoria paginada.
+ * <p>
+ * Los procesos se admiten en orden de llegada, saltándose a los que no caben. En lugar de recorrer toda la
+ * lista cada vez que se libera memoria, los procesos se agrupan por el número de marcos que necesitan: cada
+ * grupo es una cola en orden de llegada, así que el primer proceso que cabe en {@code free} marcos es la cabeza
+ * más antigua entre los grupos que necesitan {@code free} marcos o menos. Buscarlo cuesta O(tamaños distintos),
+ * no O(procesos pendientes).
+ */
+class AdmissionQueue {
+
+    /** Un proceso pendiente con los marcos que necesita y su posición en el orden de llegada. */
+    static final class Entry {
+        final Process process;
+        final int frames;
+        final long sequence;
+
+        Entry(Process process, int frames, long sequence) {
+            this.process = process;
+            this.frames = frames;
+            this.sequence = sequence;
+        }
+    }
+
+    private final TreeMap<Integer, ArrayDeque<Entry>> byFrames = new TreeMap<>();
+    private long nextSequence = 0;
+    private int size = 0;
+
+    /** Agrega un proceso al final del orden de llegada. */
+    void add(Process p, int frames) {
+        add(new Entry(p, frames, nextSequence++));
+    }
+
+    private void add(Entry entry) {
+        byFrames.computeIfAbsent(entry.frames, k -> new ArrayDeque<>()).addLast(entry);
+        size++;
+    }
+
+    /**
+     * Extrae el proceso más antiguo que necesita {@code free} marcos o menos.
+     *
+     * @return El proceso, o `null` si ninguno cabe.
+     */
+    Process pollFitting(int free) {
+        ArrayDeque<Entry> oldest = null;
+        for (ArrayDeque<Entry> group : byFrames.headMap(free, true).values()) {
+            if (oldest == null || group.peekFirst().sequence < oldest.peekFirst().sequence) {
+                oldest = group;
+            }
+        }
+        if (oldest == null) {
+            return null;
+        }
+        Entry entry = oldest.pollFirst();
+        if (oldest.isEmpty()) {
+            byFrames.remove(entry.frames);
+        }
+        size--;
+        return entry.process;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void clear() {
+        byFrames.clear();
+        size = 0;
+        nextSequence = 0;
+    }
+
+    /** @return Los procesos pendientes para un checkpoint. Los elementos son inmutables y se pueden compartir. */
+    Entry[] toArray() {
+        List<Entry> entries = new ArrayList<>(size);
+        for (ArrayDeque<Entry> group : byFrames.values()) {
+            entries.addAll(group);
+        }
+        return entries.toArray(new Entry[0]);
+    }
+
+    /** Reemplaza el contenido por el de un checkpoint tomado con {@link #toArray()}. */
+    void restore(Entry[] entries) {
+        clear();
+        for (Entry entry : entries) {
+            add(entry);
+            nextSequence = Math.max(nextSequence, entry.sequence + 1);
+        }
+    }
+}
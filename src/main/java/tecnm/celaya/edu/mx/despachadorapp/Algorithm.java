@@ -0,0 +1,59 @@
+package tecnm.celaya.edu.mx.despachadorapp;
+
+import java.util.Comparator;
+
+/**
+ * Algoritmos de planificación que sabe ejecutar {@link SimulationEngine}, como {@link SchedulingPolicy}.
+ */
+public enum Algorithm implements SchedulingPolicy {
+
+    /** First-In, First-Out: se despacha el proceso que llegó primero. */
+    FIFO,
+
+    /** Shortest Job First: se despacha el proceso con menor duración. */
+    SJF {
+        @Override
+        public Comparator<Process> getReadyOrder() {
+            return Comparator.comparingInt(Process::getDuration).thenComparingInt(Process::getPid);
+        }
+    },
+
+    /** Longest Job First: se despacha el proceso con mayor duración. */
+    LJF {
+        @Override
+        public Comparator<Process> getReadyOrder() {
+            return Comparator.comparingInt(Process::getDuration).reversed().thenComparingInt(Process::getPid);
+        }
+    },
+
+    /** Last-In, First-Out con memoria paginada: se despacha el último proceso admitido en memoria. */
+    LIFO {
+        @Override
+        public boolean isLastInFirstOut() {
+            return true;
+        }
+
+        @Override
+        public boolean usesPagedMemory() {
+            return true;
+        }
+    },
+
+    /** Round Robin con cola de listos LIFO y expulsión por quantum. */
+    ROUND_ROBIN_LIFO {
+        @Override
+        public boolean isLastInFirstOut() {
+            return true;
+        }
+
+        @Override
+        public int getQuantum() {
+            return SimulationEngine.QUANTUM;
+        }
+    };
+
+    @Override
+    public String getName() {
+        return name();
+    }
+}
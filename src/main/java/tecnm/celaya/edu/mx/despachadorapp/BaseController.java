@@ -1,25 +1,53 @@
 package tecnm.celaya.edu.mx.despachadorapp;
 
-import javafx.animation.KeyFrame;
-import javafx.animation.Timeline;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
+import javafx.scene.control.Alert;
 import javafx.scene.control.Button;
+import javafx.scene.control.ComboBox;
 import javafx.scene.control.Label;
+import javafx.scene.control.ListView;
+import javafx.scene.control.Slider;
 import javafx.scene.control.TableColumn;
 import javafx.scene.control.TableView;
 import javafx.scene.control.cell.PropertyValueFactory;
-import javafx.scene.layout.VBox;
-import javafx.scene.text.Text;
-import javafx.util.Duration;
+import javafx.stage.FileChooser;
 
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
+import java.util.Locale;
+import java.util.concurrent.Callable;
 
+/**
+ * Controlador común de todas las vistas de simulación.
+ * <p>
+ * Contiene las tablas, el reloj de reproducción, el slider y los botones de control. Lo único que cambia
+ * entre algoritmos es la {@link SchedulingPolicy} que recibe el constructor, así que cada vista solo
+ * declara un controlador de pocas líneas. Para agregar un algoritmo nuevo basta con:
+ * <ol>
+ *     <li>implementar su {@link SchedulingPolicy} (o agregar una constante a {@link Algorithm}),</li>
+ *     <li>crear una subclase que pase la política a este constructor, y</li>
+ *     <li>apuntar el {@code fx:controller} de su vista a esa subclase.</li>
+ * </ol>
+ * Las subclases pueden sobrescribir {@link #createWorkloadGenerator(long)} para generar otra carga de
+ * trabajo y {@link #showSnapshot(SimulationSnapshot)} para mostrar elementos propios de su vista.
+ * <p>
+ * "Grabar" guarda la corrida de la carga actual con {@link RunRecorder}, y "Reproducir" abre una grabación y la
+ * muestra con {@link RunReplay}, sin volver a ejecutar el planificador. "Reiniciar" vuelve a simular una carga
+ * aleatoria.
+ * <p>
+ * Si la vista tiene un {@link GanttChart}, al cargar una carga se calcula en segundo plano su {@link GanttTimeline}
+ * completo (una corrida aparte, o los eventos de la grabación) y el diagrama muestra la ocupación de la CPU hasta
+ * el tick actual.
+ */
 public abstract class BaseController {
 
+    //<editor-fold desc="FXML-Injected Fields">
     @FXML protected TableView<Process> processTable;
     @FXML protected TableColumn<Process, Integer> pidColumn;
     @FXML protected TableColumn<Process, Integer> arrivalColumn;
@@ -27,6 +55,7 @@ public abstract class BaseController {
 
     @FXML protected Label timerLabel;
     @FXML protected Label cpuProcessLabel;
+    /** Muestra la cola de memoria. Es opcional: la vista de LIFO usa una tabla de paginación en su lugar. */
     @FXML protected Label memoryProcessLabel;
 
     @FXML protected TableView<Process> processStatusTable;
@@ -35,25 +64,53 @@ public abstract class BaseController {
     @FXML protected TableColumn<Process, String> statusStateColumn;
     @FXML protected TableColumn<Process, Integer> statusDurationColumn;
 
-    @FXML protected VBox finishedProcessesVBox;
+    @FXML protected ListView<Process> finishedProcessesList;
     @FXML protected Button playPauseButton;
+    @FXML protected Slider timelineSlider;
+    @FXML protected ComboBox<String> speedComboBox;
+    /** Diagrama de Gantt de la CPU. Es opcional. */
+    @FXML protected GanttChart ganttChart;
+    //</editor-fold>
 
-    protected Timeline timeline;
-    protected int timer = 0;
-    protected boolean isPaused = true;
+    // --- Variables de Simulación ---
+    protected final SchedulingPolicy policy;
+    private PlaybackClock clock; // Controla el avance automático de la simulación a la velocidad elegida.
+    private int timer = 0; // El tiempo actual de la simulación en segundos.
+    private boolean isPaused = true; // Controla si la simulación está en pausa.
+    private boolean updatingSlider = false; // Evita que mover el slider desde el código dispare un salto.
+    private Task<GanttTimeline> timelineTask; // Calcula el diagrama de Gantt de la carga actual.
 
-    protected ObservableList<Process> processList = FXCollections.observableArrayList();
-    protected ObservableList<Process> processStatusList = FXCollections.observableArrayList();
-    protected List<Process> finishedOrderList = new ArrayList<>();
-    protected Process cpuProcess = null;
+    // --- Listas y Colas de Procesos ---
+    protected final ObservableList<Process> processList = FXCollections.observableArrayList(); // Lista original de procesos generados.
+    protected final ObservableList<Process> processStatusList = FXCollections.observableArrayList(); // Lista vinculada a la tabla de estados.
+    protected final ObservableList<Process> finishedList = FXCollections.observableArrayList(); // Procesos finalizados, en orden de finalización.
 
+    /** El motor que calcula el estado de la simulación, en su propio hilo. */
+    protected final SimulationWorker worker;
+
+    protected BaseController(SchedulingPolicy policy) {
+        this.policy = policy;
+        this.worker = new SimulationWorker(policy, this::updateUI, this::simulationFailed);
+    }
+
+    /**
+     * Método de inicialización, se llama automáticamente después de cargar el FXML.
+     * Configura las tablas y arranca la simulación en un estado inicial.
+     */
     @FXML
     public void initialize() {
         setupTables();
         setupTimeline();
-        onRestartButtonClick();
+        setupTimelineSlider();
+        if (ganttChart != null) {
+            ganttChart.setOnSeek(tick -> timelineSlider.setValue(Math.min(tick, timelineSlider.getMax())));
+        }
+        onRestartButtonClick(); // Llama a restart para la carga inicial.
     }
 
+    /**
+     * Vincula las columnas de las tablas con las propiedades del objeto Process y les asigna sus listas.
+     */
     protected void setupTables() {
         pidColumn.setCellValueFactory(new PropertyValueFactory<>("pid"));
         arrivalColumn.setCellValueFactory(new PropertyValueFactory<>("arrivalTime"));
@@ -64,77 +121,190 @@ public abstract class BaseController {
         statusStateColumn.setCellValueFactory(new PropertyValueFactory<>("state"));
         statusDurationColumn.setCellValueFactory(new PropertyValueFactory<>("remainingDuration"));
 
-        statusLocationColumn.setCellFactory(col -> new UpdatingCell<>());
-        statusStateColumn.setCellFactory(col -> new UpdatingCell<>());
-        statusDurationColumn.setCellFactory(col -> new UpdatingCell<>());
-
         processTable.setItems(processList);
         processStatusTable.setItems(processStatusList);
+        finishedProcessesList.setItems(finishedList);
+        finishedProcessesList.setCellFactory(list -> new FinishedProcessCell());
     }
 
-    protected void generateRandomProcesses() {
-        processList.clear();
-        Random rand = new Random();
-        int arrivalTime = 0;
-        for (int i = 1; i <= 5; i++) {
-            processList.add(new Process(i, arrivalTime, rand.nextInt(5) + 2));
-            arrivalTime += rand.nextInt(3);
-        }
+    /**
+     * Crea una lista de 5 procesos con tiempos de llegada aleatorios.
+     */
+    private void generateRandomProcesses() {
+        processList.setAll(createWorkloadGenerator(System.nanoTime()).generate(5));
         processStatusList.setAll(processList);
     }
 
+    /**
+     * Crea el generador de la carga de trabajo aleatoria. Por defecto los procesos llegan separados de 0 a 2
+     * segundos, duran entre 2 y 6 segundos y no ocupan memoria.
+     */
+    protected WorkloadGenerator createWorkloadGenerator(long seed) {
+        return new WorkloadGenerator(seed).setSizes(WorkloadGenerator.Distribution.constant(0));
+    }
+
+    /**
+     * Configura el reloj de reproducción y el selector de velocidad (de 0.1x a la máxima).
+     */
     private void setupTimeline() {
-        timeline = new Timeline(new KeyFrame(Duration.seconds(1), event -> {
-            if (!isPaused) {
-                runSimulationStep(true);
+        clock = new PlaybackClock(this::advance);
+        speedComboBox.getItems().setAll(PlaybackClock.SPEED_LABELS);
+        speedComboBox.setValue(PlaybackClock.DEFAULT_SPEED_LABEL);
+        speedComboBox.setOnAction(event -> clock.setSpeed(PlaybackClock.parseSpeed(speedComboBox.getValue())));
+    }
+
+    /**
+     * Configura el slider para saltar a cualquier tick de la simulación.
+     * El motor resuelve el salto restaurando su checkpoint más cercano.
+     */
+    private void setupTimelineSlider() {
+        timelineSlider.valueProperty().addListener((obs, oldValue, newValue) -> {
+            if (!updatingSlider && newValue.intValue() != timer) {
+                timer = newValue.intValue();
+                worker.seek(timer);
             }
-        }));
-        timeline.setCycleCount(Timeline.INDEFINITE);
+        });
     }
 
-    protected abstract void runSimulationStep(boolean forward);
+    /**
+     * Mueve la simulación un segundo hacia adelante o hacia atrás.
+     * El motor se coloca en el nuevo tick en su propio hilo, y la interfaz se actualiza cuando publica el resultado.
+     *
+     * @param forward `true` si la simulación avanza, `false` si retrocede.
+     */
+    private void runSimulationStep(boolean forward) {
+        if (forward) timer++;
+        else timer--;
 
-    protected String getCpuLabelText() {
-        if (cpuProcess != null) {
-            return "PID: " + cpuProcess.getPid();
-        } else {
-            return "Libre";
+        worker.seek(timer);
+    }
+
+    /**
+     * Avanza la simulación los ticks que pide el reloj de reproducción, sin pasar del último tick posible.
+     */
+    private void advance(int ticks) {
+        int end = (int) timelineSlider.getMax();
+        if (timer >= end) {
+            clock.stop();
+            isPaused = true;
+            playPauseButton.setText("Inicio");
+            return;
         }
+        timer = (int) Math.min((long) timer + ticks, end);
+        worker.seek(timer);
     }
 
-    protected abstract String getMemoryLabelText();
+    /**
+     * Actualiza todos los componentes de la interfaz gráfica para reflejar el estado publicado por el motor.
+     * <p>
+     * El tiempo y el slider se toman de la copia y no de {@code timer}: mientras el motor calcula, {@code timer} ya
+     * puede ir más adelante, y la vista debe mostrar el tick al que corresponde lo que dibuja. Por lo mismo, el
+     * reloj solo pide el siguiente avance cuando llega la copia del tick que se pidió.
+     */
+    private void updateUI(SimulationSnapshot snapshot) {
+        // El estado inicial, antes de ejecutar el primer tick, se muestra como el tick 0.
+        int time = Math.max(snapshot.getTime(), 0);
+        if (time == timer) {
+            clock.frameRendered();
+        }
+        timerLabel.setText(String.valueOf(time));
+        updatingSlider = true;
+        timelineSlider.setValue(time);
+        updatingSlider = false;
 
-    protected void updateUI() {
-        timerLabel.setText(String.valueOf(timer));
-        cpuProcessLabel.setText(getCpuLabelText());
-        memoryProcessLabel.setText(getMemoryLabelText());
+        // Actualizar etiqueta de la CPU. Con quantum, muestra también su progreso.
+        Process cpuProcess = snapshot.getCpuProcess();
+        if (cpuProcess == null) {
+            cpuProcessLabel.setText("Libre");
+        } else if (policy.getQuantum() > 0) {
+            cpuProcessLabel.setText("PID: " + cpuProcess.getPid() + " (" + snapshot.getQuantumCounter() + "/"
+                    + policy.getQuantum() + ")");
+        } else {
+            cpuProcessLabel.setText("PID: " + cpuProcess.getPid());
+        }
+
+        // Actualizar etiqueta de la Memoria, en orden de despacho. Si la política ordena por duración,
+        // se muestra la duración para que se vea el orden.
+        if (memoryProcessLabel != null) {
+            StringBuilder memoryText = new StringBuilder();
+            for (Process p : snapshot.getReadyProcesses()) {
+                memoryText.append("PID: ").append(p.getPid());
+                if (policy.getReadyOrder() != null) {
+                    memoryText.append("(").append(p.getDuration()).append(")");
+                }
+                memoryText.append(" ");
+            }
+            memoryProcessLabel.setText(memoryText.length() > 0 ? memoryText.toString() : "Vacía");
+        }
+
+        // Actualizar la lista de procesos finalizados, respetando el orden de finalización.
+        updateFinishedList(snapshot);
 
-        finishedProcessesVBox.getChildren().clear();
-        for (Process p : finishedOrderList) {
-            Text textNode = new Text("PID: " + p.getPid());
-            textNode.getStyleClass().add("finished-process-text");
-            finishedProcessesVBox.getChildren().add(textNode);
+        if (ganttChart != null) {
+            ganttChart.setTime(snapshot.getTime());
         }
 
-        // Do NOT call refresh(). The properties will update the table automatically.
+        showSnapshot(snapshot);
 
-        boolean allFinished = finishedOrderList.size() == processList.size();
-        if (allFinished && timer > 0) {
-            timeline.stop();
+        // Comprobar si la simulación ha terminado.
+        if (snapshot.isFinished() && time > 0) {
+            clock.stop();
             playPauseButton.setText("Inicio");
             isPaused = true;
             cpuProcessLabel.setText("Finalizado");
         }
     }
 
+    /**
+     * Detiene la reproducción cuando el hilo de simulación falla, por ejemplo con una grabación dañada, y avisa al
+     * usuario. La vista conserva el último estado que se alcanzó a mostrar.
+     */
+    private void simulationFailed(RuntimeException e) {
+        clock.stop();
+        clock.frameRendered();
+        isPaused = true;
+        playPauseButton.setText("Inicio");
+        System.err.println("Error en el hilo de simulación: " + e.getMessage());
+        showError("Error en la Simulación", "No se pudo calcular el tick " + timer + ": " + e.getMessage());
+    }
+
+    /**
+     * Muestra los elementos propios de una vista. Se llama en el hilo de JavaFX con cada estado publicado.
+     */
+    protected void showSnapshot(SimulationSnapshot snapshot) {
+    }
+
+    /**
+     * Prepara la vista para una memoria paginada de {@code memoryFrames} marcos de {@code pageSize} KB. Se llama
+     * antes de mostrar una corrida: con los valores por defecto del motor al simular, y con los de la grabación
+     * al reproducir una, que pudo grabarse con otra memoria ({@code --frames} y {@code --page-size}).
+     */
+    protected void showMemoryLayout(int memoryFrames, int pageSize) {
+    }
+
+    /**
+     * Sincroniza la lista de procesos finalizados con el motor. El registro de finalización solo crece o se
+     * recorta por el final, así que basta con agregar o quitar la diferencia en lugar de reconstruir la lista.
+     */
+    private void updateFinishedList(SimulationSnapshot snapshot) {
+        List<Process> finished = snapshot.getFinishedProcesses();
+        int shown = finishedList.size();
+        if (finished.size() < shown) {
+            finishedList.remove(finished.size(), shown);
+        } else if (finished.size() > shown) {
+            finishedList.addAll(finished.subList(shown, finished.size()));
+        }
+    }
+
+    //<editor-fold desc="Event Handlers for Control Buttons">
     @FXML
     protected void onPlayPauseButtonClick() {
         isPaused = !isPaused;
         if (isPaused) {
-            timeline.pause();
+            clock.stop();
             playPauseButton.setText("Inicio");
         } else {
-            timeline.play();
+            clock.start();
             playPauseButton.setText("Pausa");
         }
     }
@@ -153,20 +323,135 @@ public abstract class BaseController {
         }
     }
 
+    /**
+     * Graba en segundo plano la corrida completa de la carga actual, para reproducirla después.
+     */
+    @FXML
+    protected void onRecordButtonClick() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Grabar corrida");
+        chooser.setInitialFileName(policy.getName().toLowerCase(Locale.ROOT) + ".run");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Corrida grabada (*.run)", "*.run"));
+        File selected = chooser.showSaveDialog(playPauseButton.getScene().getWindow());
+        if (selected == null) {
+            return;
+        }
+
+        Path file = selected.toPath();
+        List<Process> workload = new ArrayList<>(processList);
+        Task<Long> task = new Task<>() {
+            @Override
+            protected Long call() throws IOException {
+                return RunRecorder.record(file, policy, workload);
+            }
+        };
+        task.setOnSucceeded(event -> showAlert(Alert.AlertType.INFORMATION, "Corrida Grabada",
+                "Se grabaron " + task.getValue() + " eventos en " + file + "."));
+        task.setOnFailed(event -> {
+            Throwable e = task.getException();
+            System.err.println("Error al grabar " + file + ": " + e.getMessage());
+            showError("Error al Grabar", "No se pudo grabar la corrida: " + e.getMessage());
+        });
+        Thread thread = new Thread(task, "grabar-corrida");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Abre una corrida grabada y la muestra desde el tick 0. Los controles funcionan igual que con una simulación.
+     */
+    @FXML
+    protected void onReplayButtonClick() {
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Reproducir corrida");
+        chooser.getExtensionFilters().add(new FileChooser.ExtensionFilter("Corrida grabada (*.run)", "*.run"));
+        File selected = chooser.showOpenDialog(playPauseButton.getScene().getWindow());
+        if (selected == null) {
+            return;
+        }
+
+        RunReplay replay;
+        try {
+            replay = RunReplay.open(selected.toPath(), policy);
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error al abrir " + selected + ": " + e.getMessage());
+            showError("Error al Reproducir", "No se pudo abrir la grabación: " + e.getMessage());
+            return;
+        }
+        clock.stop();
+        timer = 0;
+        isPaused = true;
+        playPauseButton.setText("Inicio");
+
+        processList.setAll(replay.getProcesses());
+        processStatusList.setAll(processList);
+        showMemoryLayout(replay.getMemoryFrames(), replay.getPageSize());
+        worker.replay(replay);
+        timelineSlider.setMax(replay.getEndTick());
+        finishedList.clear();
+        loadGanttTimeline(replay::toTimeline);
+    }
+
     @FXML
     protected void onRestartButtonClick() {
-        timeline.stop();
+        clock.stop();
         timer = 0;
         isPaused = true;
         playPauseButton.setText("Inicio");
 
         generateRandomProcesses();
+        showMemoryLayout(SimulationEngine.MEMORY_SLOTS, SimulationEngine.PAGE_SIZE);
 
-        cpuProcess = null;
-        finishedOrderList.clear();
-        finishedProcessesVBox.getChildren().clear();
-        runSimulationStep(false);
-        timer = 0;
-        updateUI();
+        // Resetear el estado de la simulación y la UI al estado inicial (t=0).
+        // La interfaz se actualiza cuando el hilo de simulación publique el estado inicial.
+        worker.load(processList);
+        timelineSlider.setMax(SimulationEngine.endTickBound(processList));
+        finishedList.clear();
+        List<Process> workload = new ArrayList<>(processList);
+        loadGanttTimeline(() -> GanttTimeline.simulate(policy, workload));
+    }
+    //</editor-fold>
+
+    /**
+     * Calcula en segundo plano el historial del diagrama de Gantt y lo muestra al terminar. Si mientras tanto se
+     * carga otra corrida, el cálculo anterior se cancela y su resultado se descarta.
+     */
+    private void loadGanttTimeline(Callable<GanttTimeline> source) {
+        if (ganttChart == null) {
+            return;
+        }
+        if (timelineTask != null) {
+            timelineTask.cancel();
+        }
+        ganttChart.setTimeline(null);
+        Task<GanttTimeline> task = new Task<>() {
+            @Override
+            protected GanttTimeline call() throws Exception {
+                return source.call();
+            }
+        };
+        task.setOnSucceeded(event -> {
+            if (timelineTask == task) {
+                ganttChart.setTimeline(task.getValue());
+            }
+        });
+        task.setOnFailed(event -> System.err.println("Error al calcular el diagrama de Gantt: "
+                + task.getException().getMessage()));
+        timelineTask = task;
+        Thread thread = new Thread(task, "diagrama-gantt");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void showError(String title, String message) {
+        showAlert(Alert.AlertType.ERROR, title, message);
+    }
+
+    private void showAlert(Alert.AlertType type, String title, String message) {
+        Alert alert = new Alert(type);
+        alert.setTitle(title);
+        alert.setHeaderText(null);
+        alert.setContentText(message);
+        alert.show();
     }
 }
@@ -0,0 +1,437 @@
+package tecnm.celaya.edu.mx.despachadorapp;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Punto de entrada sin interfaz gráfica para correr simulaciones por lotes.
+ * <p>
+ * Ejecuta uno o todos los algoritmos sobre una carga de trabajo tan rápido como lo permita la CPU, sin el
+ * reloj de reproducción de las vistas, y escribe en CSV las métricas de cada proceso. No inicia el toolkit
+ * de JavaFX, así que funciona en servidores y en CI sin pantalla.
+ * <p>
+ * Uso:
+ * <pre>
+ * BatchApplication [--algorithm fifo|sjf|ljf|lifo|round_robin_lifo|all]
+ *                  [--input carga.csv | --random N] [--seed S] [--output metricas.csv]
+ *                  [--arrivals DIST] [--durations DIST] [--sizes DIST]
+ *                  [--frames M] [--page-size KB] [--cores N [--steal] [--migrate]] [--summary resumen.csv]
+ *                  [--stream] [--write-trace traza.trc] [--record corrida.run]
+ * </pre>
+ * El archivo de entrada tiene una línea {@code pid,llegada,duracion[,tamaño]} por proceso; se ignoran las
+ * líneas vacías, los comentarios que empiezan con {@code #} y un encabezado opcional. {@code --frames} y
+ * {@code --page-size} configuran la memoria paginada de LIFO (por defecto, {@value SimulationEngine#MEMORY_SLOTS}
+ * marcos de {@value SimulationEngine#PAGE_SIZE} KB).
+ * <p>
+ * La carga aleatoria sale de {@link WorkloadGenerator} y solo depende de la semilla. {@code --arrivals},
+ * {@code --durations} y {@code --sizes} cambian las distribuciones de la separación entre llegadas, de la duración
+ * y del tamaño, con la sintaxis de {@link WorkloadGenerator.Distribution#parse(String)}; por ejemplo,
+ * {@code --arrivals poisson:0.5 --durations pareto:2:1.5}.
+ * <p>
+ * La entrada también puede ser una traza binaria de {@link TraceWriter}; {@code --write-trace} convierte la carga
+ * de entrada (o la aleatoria) a ese formato y termina. Con {@code --stream} la entrada no se carga completa: cada
+ * algoritmo la lee del archivo conforme avanza la simulación ({@link TraceReader}), así que la memoria no depende
+ * del tamaño de la traza.
+ * <p>
+ * {@code --record} graba todas las transiciones de la corrida con {@link RunRecorder}, para verla después en la vista
+ * del algoritmo con "Reproducir". Necesita un solo algoritmo, un solo núcleo y la carga completa en memoria.
+ * <p>
+ * Con {@code --cores N} mayor a 1 la simulación corre en {@link MultiCoreEngine}: {@code --steal} activa el robo
+ * de trabajo entre núcleos y {@code --migrate} permite que un proceso expulsado por quantum cambie de núcleo. Al
+ * final de cada algoritmo se imprime la utilización de cada núcleo, las migraciones y el desbalance de carga.
+ * <p>
+ * Las métricas se acumulan con {@link SchedulingMetrics} conforme avanza la simulación. El resumen de cada
+ * algoritmo (throughput, utilización y media y percentiles de retorno, espera y respuesta) se imprime en la salida
+ * de error y, con {@code --summary}, también se escribe como una fila de CSV por algoritmo.
+ */
+public class BatchApplication {
+
+    private static final String USAGE = "Uso: BatchApplication [--algorithm fifo|sjf|ljf|lifo|round_robin_lifo|all]"
+            + " [--input carga.csv | --random N] [--seed S] [--output metricas.csv]"
+            + " [--arrivals DIST] [--durations DIST] [--sizes DIST]"
+            + " [--frames M] [--page-size KB] [--cores N [--steal] [--migrate]] [--summary resumen.csv]"
+            + " [--stream] [--write-trace traza.trc] [--record corrida.run]";
+
+    private static final String SUMMARY_HEADER = "algorithm,cores,processes,elapsed,throughput,utilization,"
+            + "turnaround_mean,turnaround_p50,turnaround_p95,turnaround_p99,turnaround_max,"
+            + "waiting_mean,waiting_p50,waiting_p95,waiting_p99,waiting_max,"
+            + "response_mean,response_p50,response_p95,response_p99,response_max\n";
+
+    public static void main(String[] args) {
+        Set<Algorithm> algorithms = EnumSet.allOf(Algorithm.class);
+        Path input = null;
+        Path output = null;
+        int randomCount = 1000;
+        long seed = System.nanoTime();
+        int memoryFrames = SimulationEngine.MEMORY_SLOTS;
+        int pageSize = SimulationEngine.PAGE_SIZE;
+        int cores = 1;
+        boolean steal = false;
+        boolean migrate = false;
+        Path summaryPath = null;
+        Path tracePath = null;
+        Path recordPath = null;
+        boolean stream = false;
+        WorkloadGenerator generator = new WorkloadGenerator(0);
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if (option.equals("--help") || option.equals("-h")) {
+                    System.out.println(USAGE);
+                    return;
+                }
+                if (option.equals("--steal")) {
+                    steal = true;
+                    continue;
+                }
+                if (option.equals("--migrate")) {
+                    migrate = true;
+                    continue;
+                }
+                if (option.equals("--stream")) {
+                    stream = true;
+                    continue;
+                }
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Falta el valor de " + option);
+                }
+                String value = args[++i];
+                switch (option) {
+                    case "--algorithm":
+                        algorithms = parseAlgorithms(value);
+                        break;
+                    case "--input":
+                        input = Path.of(value);
+                        break;
+                    case "--random":
+                        randomCount = Integer.parseInt(value);
+                        break;
+                    case "--seed":
+                        seed = Long.parseLong(value);
+                        break;
+                    case "--output":
+                        output = Path.of(value);
+                        break;
+                    case "--arrivals":
+                        generator.setArrivalGaps(WorkloadGenerator.Distribution.parse(value));
+                        break;
+                    case "--durations":
+                        generator.setDurations(WorkloadGenerator.Distribution.parse(value));
+                        break;
+                    case "--sizes":
+                        generator.setSizes(WorkloadGenerator.Distribution.parse(value));
+                        break;
+                    case "--summary":
+                        summaryPath = Path.of(value);
+                        break;
+                    case "--write-trace":
+                        tracePath = Path.of(value);
+                        break;
+                    case "--record":
+                        recordPath = Path.of(value);
+                        break;
+                    case "--frames":
+                        memoryFrames = Integer.parseInt(value);
+                        break;
+                    case "--page-size":
+                        pageSize = Integer.parseInt(value);
+                        break;
+                    case "--cores":
+                        cores = Integer.parseInt(value);
+                        if (cores < 1) {
+                            throw new IllegalArgumentException("--cores debe ser al menos 1");
+                        }
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Opción desconocida: " + option);
+                }
+            }
+            if (stream && (input == null || cores > 1)) {
+                throw new IllegalArgumentException("--stream necesita --input y un solo núcleo");
+            }
+            if (recordPath != null && (algorithms.size() != 1 || cores > 1 || stream)) {
+                throw new IllegalArgumentException("--record necesita un solo algoritmo, un solo núcleo y no admite --stream");
+            }
+            generator = generator.withSeed(seed);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(1);
+            return;
+        }
+
+        try {
+            if (tracePath != null) {
+                writeTrace(input, randomCount, generator, tracePath);
+                return;
+            }
+            List<Process> workload = stream ? null
+                    : input != null ? readWorkload(input) : generator.generate(randomCount);
+            try (Writer writer = output != null
+                    ? Files.newBufferedWriter(output, StandardCharsets.UTF_8)
+                    : new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))) {
+                writer.write("algorithm,pid,arrival,duration,size,start,completion,turnaround,waiting,response\n");
+                List<SchedulingMetrics> results = new ArrayList<>();
+                for (Algorithm algorithm : algorithms) {
+                    if (stream) {
+                        results.add(runTrace(algorithm, input, memoryFrames, pageSize, writer));
+                    } else if (cores > 1) {
+                        results.add(runMultiCore(algorithm, workload, cores, steal, migrate, writer));
+                    } else {
+                        results.add(run(algorithm, workload, memoryFrames, pageSize, writer, recordPath));
+                    }
+                }
+                if (summaryPath != null) {
+                    try (Writer summary = Files.newBufferedWriter(summaryPath, StandardCharsets.UTF_8)) {
+                        summary.write(SUMMARY_HEADER);
+                        int i = 0;
+                        for (Algorithm algorithm : algorithms) {
+                            writeSummaryRow(summary, algorithm, cores, results.get(i++));
+                        }
+                    }
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            System.err.println("Error de E/S: " + e.getMessage());
+            System.exit(2);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Corre un algoritmo sobre una copia de la carga de trabajo y escribe las métricas de cada proceso
+     * conforme va finalizando. Al terminar imprime un resumen en la salida de error.
+     *
+     * @param recordPath Dónde grabar la corrida con {@link RunRecorder}, o `null` para no grabarla.
+     * @return Las métricas agregadas de la corrida.
+     */
+    static SchedulingMetrics run(Algorithm algorithm, List<Process> workload, int memoryFrames, int pageSize, Writer writer,
+                                 Path recordPath) throws IOException {
+        // Sin checkpoints: una corrida por lotes nunca retrocede.
+        SimulationEngine engine = new SimulationEngine(algorithm, SimulationEngine.DEFAULT_CHECKPOINT_INTERVAL, 0,
+                memoryFrames, pageSize);
+        List<Process> processes = Process.copyAll(workload);
+        engine.load(processes);
+        if (recordPath == null) {
+            return simulate(algorithm, engine, writer, null);
+        }
+        try (RunRecorder recorder = new RunRecorder(recordPath, algorithm, processes, memoryFrames, pageSize)) {
+            SchedulingMetrics metrics = simulate(algorithm, engine, writer, recorder);
+            recorder.finish();
+            System.err.printf("%d eventos grabados en %s%n", recorder.getCount(), recordPath);
+            return metrics;
+        }
+    }
+
+    /**
+     * Como {@link #run}, pero lee la traza del archivo conforme avanza la simulación con
+     * {@link SimulationEngine#loadStream}, así que la memoria no depende del tamaño de la traza. El archivo se
+     * vuelve a leer para cada algoritmo y debe estar ordenado por tiempo de llegada.
+     *
+     * @return Las métricas agregadas de la corrida.
+     */
+    static SchedulingMetrics runTrace(Algorithm algorithm, Path trace, int memoryFrames, int pageSize, Writer writer)
+            throws IOException {
+        SimulationEngine engine = new SimulationEngine(algorithm, SimulationEngine.DEFAULT_CHECKPOINT_INTERVAL, 0,
+                memoryFrames, pageSize);
+        try (TraceReader reader = TraceReader.open(trace)) {
+            engine.loadStream(reader);
+            return simulate(algorithm, engine, writer, null);
+        }
+    }
+
+    /**
+     * Corre hasta el final un motor ya cargado, escribiendo las métricas, e imprime el resumen.
+     *
+     * @param observer Otro observador de la corrida, o `null`.
+     */
+    private static SchedulingMetrics simulate(Algorithm algorithm, SimulationEngine engine, Writer writer,
+                                              SimulationListener observer) throws IOException {
+        MetricsWriter metrics = new MetricsWriter(algorithm, writer);
+        engine.setListener(observer == null ? metrics : metrics.andThen(observer));
+
+        long start = System.nanoTime();
+        boolean completed = engine.runToCompletion();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        metrics.rethrow();
+
+        int loaded = engine.getLoadedCount();
+        printSummary(algorithm.name(), metrics, 1, loaded, engine.getTime() + 1, elapsedMillis);
+        if (!completed) {
+            System.err.printf("%s: %d procesos nunca pudieron ejecutarse%n", algorithm,
+                    loaded - engine.getFinishedCount());
+        }
+        return metrics;
+    }
+
+    /**
+     * Corre un algoritmo en varios núcleos. Escribe las mismas métricas por proceso que {@link #run} y, además
+     * del resumen, imprime la utilización y los despachos de cada núcleo.
+     *
+     * @return Las métricas agregadas de la corrida.
+     */
+    static SchedulingMetrics runMultiCore(Algorithm algorithm, List<Process> workload, int cores, boolean steal, boolean migrate,
+                             Writer writer) throws IOException {
+        List<Process> processes = Process.copyAll(workload);
+
+        MultiCoreEngine engine = new MultiCoreEngine(algorithm, cores, steal, migrate);
+        MetricsWriter metrics = new MetricsWriter(algorithm, writer);
+        engine.setListener(metrics);
+        engine.load(processes);
+
+        long start = System.nanoTime();
+        boolean completed = engine.runToCompletion();
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        metrics.rethrow();
+
+        int finished = engine.getFinishedCount();
+        printSummary(algorithm + " (" + cores + " núcleos)", metrics, cores, processes.size(), engine.getTime() + 1,
+                elapsedMillis);
+        for (int i = 0; i < cores; i++) {
+            System.err.printf(Locale.ROOT, "  núcleo %d: utilización=%.1f%%, despachos=%d%n",
+                    i, engine.getUtilization(i) * 100, engine.getDispatches(i));
+        }
+        System.err.printf(Locale.ROOT, "  migraciones=%d, desbalance de carga=%.3f%n",
+                engine.getMigrations(), engine.getLoadImbalance());
+        if (!completed) {
+            System.err.printf("%s: %d procesos nunca pudieron ejecutarse%n", algorithm, processes.size() - finished);
+        }
+        return metrics;
+    }
+
+    /** Imprime en la salida de error el resumen de una corrida: throughput, utilización y distribuciones. */
+    private static void printSummary(String name, SchedulingMetrics metrics, int cores, int processCount, int endTick,
+                                     long elapsedMillis) {
+        System.err.printf(Locale.ROOT,
+                "%s: %d/%d procesos, fin=%d, throughput=%.4f procesos/s, utilización=%.1f%%, %d despachos, %d expulsiones, %d ms%n",
+                name, metrics.getFinishedCount(), processCount, endTick, metrics.getThroughput(),
+                metrics.getUtilization(cores) * 100, metrics.getDispatches(), metrics.getPreemptions(), elapsedMillis);
+        printDistribution("retorno", metrics.getTurnaround());
+        printDistribution("espera", metrics.getWaiting());
+        printDistribution("respuesta", metrics.getResponse());
+    }
+
+    /**
+     * Escribe las métricas de cada proceso en cuanto finaliza, además de acumularlas en los histogramas de
+     * {@link SchedulingMetrics}.
+     */
+    private static final class MetricsWriter extends SchedulingMetrics {
+        private final Algorithm algorithm;
+        private final Writer writer;
+        private IOException error;
+
+        MetricsWriter(Algorithm algorithm, Writer writer) {
+            this.algorithm = algorithm;
+            this.writer = writer;
+        }
+
+        @Override
+        protected void processFinished(Process p, int start, int completion) {
+            if (error != null) {
+                return;
+            }
+            int turnaround = completion - p.getArrivalTime();
+            int waiting = turnaround - p.getDuration();
+            int response = start - p.getArrivalTime();
+            try {
+                writer.write(algorithm.name() + ',' + p.getPid() + ',' + p.getArrivalTime() + ',' + p.getDuration()
+                        + ',' + p.getSize() + ',' + start + ',' + completion + ',' + turnaround + ',' + waiting
+                        + ',' + response + '\n');
+            } catch (IOException e) {
+                error = e;
+            }
+        }
+
+        /** Propaga el primer error de escritura, que no se puede lanzar desde dentro del motor. */
+        void rethrow() throws IOException {
+            if (error != null) {
+                throw error;
+            }
+        }
+    }
+
+    /** Imprime en la salida de error la media y los percentiles 50, 95 y 99 de una métrica. */
+    private static void printDistribution(String name, LogHistogram histogram) {
+        System.err.printf(Locale.ROOT, "  %s: media=%.2f, p50=%d, p95=%d, p99=%d, máx=%d%n", name,
+                histogram.getMean(), histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(95),
+                histogram.getValueAtPercentile(99), histogram.getMax());
+    }
+
+    /** Escribe una fila del resumen por algoritmo de {@code --summary}. */
+    private static void writeSummaryRow(Writer summary, Algorithm algorithm, int cores, SchedulingMetrics metrics)
+            throws IOException {
+        StringBuilder row = new StringBuilder();
+        row.append(algorithm.name()).append(',').append(cores).append(',').append(metrics.getFinishedCount())
+                .append(',').append(metrics.getElapsedTicks())
+                .append(String.format(Locale.ROOT, ",%.6f,%.6f", metrics.getThroughput(), metrics.getUtilization(cores)));
+        for (LogHistogram histogram : new LogHistogram[]{metrics.getTurnaround(), metrics.getWaiting(),
+                metrics.getResponse()}) {
+            row.append(String.format(Locale.ROOT, ",%.4f,%d,%d,%d,%d", histogram.getMean(),
+                    histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(95),
+                    histogram.getValueAtPercentile(99), histogram.getMax()));
+        }
+        summary.write(row.append('\n').toString());
+    }
+
+    static Set<Algorithm> parseAlgorithms(String value) {
+        if (value.equalsIgnoreCase("all")) {
+            return EnumSet.allOf(Algorithm.class);
+        }
+        Set<Algorithm> algorithms = EnumSet.noneOf(Algorithm.class);
+        for (String name : value.split(",")) {
+            try {
+                algorithms.add(Algorithm.valueOf(name.trim().toUpperCase(Locale.ROOT).replace('-', '_')));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Algoritmo desconocido: " + name);
+            }
+        }
+        if (algorithms.isEmpty()) {
+            throw new IllegalArgumentException("No se indicó ningún algoritmo");
+        }
+        return algorithms;
+    }
+
+    /**
+     * Lee una carga de trabajo completa, en CSV con columnas {@code pid,llegada,duracion[,tamaño]} o en el formato
+     * binario de {@link TraceWriter}.
+     */
+    static List<Process> readWorkload(Path path) throws IOException {
+        List<Process> processes = new ArrayList<>();
+        try (TraceReader reader = TraceReader.open(path)) {
+            reader.forEachRemaining(processes::add);
+        }
+        return processes;
+    }
+
+    /**
+     * Escribe la carga de trabajo (la de {@code input}, leída sin cargarla en memoria, o una aleatoria generada por
+     * bloques) como traza binaria.
+     */
+    private static void writeTrace(Path input, int randomCount, WorkloadGenerator generator, Path tracePath)
+            throws IOException {
+        try (TraceWriter trace = new TraceWriter(tracePath)) {
+            if (input != null) {
+                try (TraceReader reader = TraceReader.open(input)) {
+                    trace.writeAll(reader);
+                }
+            } else {
+                generator.writeTrace(randomCount, trace);
+            }
+            System.err.printf("%d procesos escritos en %s%n", trace.getCount(), tracePath);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package tecnm.celaya.edu.mx.despachadorapp;
+
+import java.util.Arrays;
+
+/**
+ * Buffer circular y acotado de checkpoints de {@link SimulationEngine}.
+ * <p>
+ * El motor guarda un checkpoint cada {@code interval} ticks. El checkpoint número {@code m}
+ * corresponde al estado tras el tick {@code m * interval - 1} y vive en la posición
+ * {@code m % capacity} del buffer, así que localizar el checkpoint de un tick es O(1).
+ * Cuando el buffer da la vuelta, los checkpoints más nuevos reemplazan a los más viejos; un
+ * salto a una zona sin checkpoint simplemente se resuelve desde el inicio de la simulación.
+ * Con capacidad 0 el buffer queda deshabilitado.
+ * <p>
+ * Un checkpoint copia a todos los procesos activos, así que con muchos procesos en memoria a la vez no
+ * conviene guardar uno en cada frontera. {@link #isWorthStoring} solo acepta un checkpoint grande cuando el
+ * motor ya ejecutó desde el anterior al menos tantos ticks como procesos hay que copiar (como los keyframes de
+ * {@link RunReplay}), de modo que copiar nunca cuesta más que re-ejecutar. Además, el buffer está acotado por
+ * memoria: si la suma estimada de sus checkpoints pasa de {@code maxBytes}, se descartan los de menor tiempo.
+ */
+class CheckpointBuffer {
+
+    /**
+     * Estado compacto del motor tras un tick. Solo se guardan los procesos activos (en memoria, en CPU o
+     * esperando lugar en memoria): los finalizados se deducen del registro de finalización del motor y el
+     * resto está en su estado inicial. Del proceso en CPU se guarda cuándo fue despachado y con cuánta
+     * duración, porque el motor calcula su duración restante al vuelo.
+     */
+    static final class Checkpoint {
+        final int time;
+        final int finishedCount;
+        final Process cpuProcess;
+        final int dispatchTick;
+        final int remainingAtDispatch;
+        final Process[] ready;
+        final int[] readyRemaining;
+        /** Los marcos de memoria de cada proceso de {@link #ready} (solo LIFO; `null` en los demás). */
+        final int[][] readyFrames;
+        final AdmissionQueue.Entry[] pending;
+        /** Memoria aproximada que ocupa, para acotar el buffer. */
+        final long bytes;
+
+        Checkpoint(int time, int finishedCount, Process cpuProcess, int dispatchTick, int remainingAtDispatch,
+                   Process[] ready, int[] readyRemaining, int[][] readyFrames, AdmissionQueue.Entry[] pending) {
+            this.time = time;
+            this.finishedCount = finishedCount;
+            this.cpuProcess = cpuProcess;
+            this.dispatchTick = dispatchTick;
+            this.remainingAtDispatch = remainingAtDispatch;
+            this.ready = ready;
+            this.readyRemaining = readyRemaining;
+            this.readyFrames = readyFrames;
+            this.pending = pending;
+            long estimate = 64 + ready.length * BYTES_PER_READY + pending.length * BYTES_PER_PENDING;
+            if (readyFrames != null) {
+                for (int[] frames : readyFrames) {
+                    estimate += frames != null ? 16 + 4L * frames.length : 0;
+                }
+            }
+            this.bytes = estimate;
+        }
+    }
+
+    /** Un checkpoint de a lo más este número de procesos activos siempre se guarda. */
+    static final int SMALL_CHECKPOINT = 1024;
+
+    /** Memoria aproximada por proceso listo: la referencia y su duración restante. */
+    private static final long BYTES_PER_READY = 8;
+    /** Memoria aproximada por proceso esperando lugar en memoria: la referencia y su entrada. */
+    private static final long BYTES_PER_PENDING = 32;
+
+    private final int interval;
+    private final Checkpoint[] ring;
+    private final long maxBytes;
+    private long retainedBytes = 0;
+
+    CheckpointBuffer(int interval, int capacity, long maxBytes) {
+        if (interval < 1 || capacity < 0 || maxBytes < 0) {
+            throw new IllegalArgumentException("El intervalo debe ser positivo y la capacidad y la memoria no negativas");
+        }
+        this.interval = interval;
+        this.ring = new Checkpoint[capacity];
+        this.maxBytes = maxBytes;
+    }
+
+    int getInterval() {
+        return interval;
+    }
+
+    /** @return `false` si el buffer se creó con capacidad 0 y nunca guarda checkpoints. */
+    boolean isEnabled() {
+        return ring.length > 0;
+    }
+
+    /** @return `true` si tras ejecutar este tick se debe guardar un checkpoint. */
+    boolean isDue(int time) {
+        return isEnabled() && (time + 1) % interval == 0 && get((time + 1) / interval) == null;
+    }
+
+    /**
+     * @param activeProcesses Cuántos procesos copiaría el checkpoint.
+     * @param ticksSinceLast  Cuántos ticks con eventos se ejecutaron desde el último checkpoint guardado o restaurado.
+     * @return `true` si vale la pena copiar el estado: es pequeño, o ya se hizo al menos ese trabajo desde el
+     *         último, y cabe en la memoria del buffer.
+     */
+    boolean isWorthStoring(int activeProcesses, long ticksSinceLast) {
+        return (activeProcesses <= SMALL_CHECKPOINT || ticksSinceLast >= activeProcesses)
+                && activeProcesses * BYTES_PER_READY <= maxBytes;
+    }
+
+    /** @return La memoria aproximada que ocupan los checkpoints guardados. */
+    long getRetainedBytes() {
+        return retainedBytes;
+    }
+
+    /** @return La última frontera de checkpoint que no es posterior a {@code tick}; -1 si no hay ninguna. */
+    int boundaryAtOrBefore(int tick) {
+        return (tick + 1) / interval * interval - 1;
+    }
+
+    void store(Checkpoint checkpoint) {
+        int slot = ((checkpoint.time + 1) / interval) % ring.length;
+        if (ring[slot] != null) {
+            retainedBytes -= ring[slot].bytes;
+        }
+        ring[slot] = checkpoint;
+        retainedBytes += checkpoint.bytes;
+        while (retainedBytes > maxBytes) {
+            evictEarliest();
+        }
+    }
+
+    /** Descarta el checkpoint de menor tiempo. Solo ocurre al pasar del límite de memoria. */
+    private void evictEarliest() {
+        int earliest = -1;
+        for (int i = 0; i < ring.length; i++) {
+            if (ring[i] != null && (earliest < 0 || ring[i].time < ring[earliest].time)) {
+                earliest = i;
+            }
+        }
+        retainedBytes -= ring[earliest].bytes;
+        ring[earliest] = null;
+    }
+
+    /**
+     * Busca el checkpoint más reciente con tiempo menor o igual a {@code tick} y estrictamente mayor que
+     * {@code after}. Devuelve `null` si no hay ninguno que valga la pena restaurar.
+     */
+    Checkpoint floor(int tick, int after) {
+        int number = (tick + 1) / interval;
+        for (int scanned = 0; ring.length > 0 && number >= 1 && scanned < ring.length; number--, scanned++) {
+            if (number * interval - 1 <= after) {
+                return null;
+            }
+            Checkpoint checkpoint = get(number);
+            if (checkpoint != null) {
+                return checkpoint;
+            }
+        }
+        return null;
+    }
+
+    void clear() {
+        Arrays.fill(ring, null);
+        retainedBytes = 0;
+    }
+
+    private Checkpoint get(int number) {
+        Checkpoint checkpoint = ring[number % ring.length];
+        return checkpoint != null && checkpoint.time == number * interval - 1 ? checkpoint : null;
+    }
+}
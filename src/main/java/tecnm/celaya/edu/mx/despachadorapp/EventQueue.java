@@ -0,0 +1,97 @@
+package tecnm.celaya.edu.mx.despachadorapp;
+
+import java.util.Arrays;
+
+/**
+ * Cola de prioridad de eventos de {@link SimulationEngine}, ordenada por tick.
+ * <p>
+ * Es un heap binario sobre un arreglo de {@code long}: cada evento se codifica con el tick en los bits altos
+ * y el tipo en los bajos, así que encolar un evento no crea objetos. Varios eventos pueden caer en el mismo
+ * tick; el motor los atiende juntos con {@link #popTick()}.
+ */
+class EventQueue {
+
+    /** Tipos de evento. El orden de declaración es el orden de desempate dentro de un mismo tick. */
+    enum Type {
+        /** Llegan procesos al sistema. */
+        ARRIVAL,
+        /** Se reintenta admitir en la memoria paginada a los procesos que no cabían (solo LIFO). */
+        ADMISSION_RETRY,
+        /** El proceso en CPU agota su quantum (solo Round Robin). */
+        QUANTUM_EXPIRY,
+        /** La CPU quedó libre con procesos listos en memoria. */
+        DISPATCH,
+        /** El proceso en CPU termina. */
+        COMPLETION
+    }
+
+    private static final int TYPE_BITS = 8;
+
+    private long[] heap = new long[16];
+    private int size = 0;
+
+    void push(int tick, Type type) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+        }
+        long event = ((long) tick << TYPE_BITS) | type.ordinal();
+        int i = size++;
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent] <= event) {
+                break;
+            }
+            heap[i] = heap[parent];
+            i = parent;
+        }
+        heap[i] = event;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /** @return El tick del evento más próximo. La cola no debe estar vacía. */
+    int peekTick() {
+        return (int) (heap[0] >> TYPE_BITS);
+    }
+
+    /** Descarta el evento más próximo. */
+    void pop() {
+        long last = heap[--size];
+        if (size == 0) {
+            return;
+        }
+        int i = 0;
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && heap[child + 1] < heap[child]) {
+                child++;
+            }
+            if (last <= heap[child]) {
+                break;
+            }
+            heap[i] = heap[child];
+            i = child;
+        }
+        heap[i] = last;
+    }
+
+    /**
+     * Descarta todos los eventos del tick más próximo.
+     *
+     * @return Ese tick.
+     */
+    int popTick() {
+        int tick = peekTick();
+        while (size > 0 && peekTick() == tick) {
+            pop();
+        }
+        return tick;
+    }
+
+    void clear() {
+        size = 0;
+    }
+}
@@ -0,0 +1,194 @@
+package tecnm.celaya.edu.mx.despachadorapp;
+
+import javafx.concurrent.Task;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Exporta la tabla de paginación (FAT) de LIFO en segundo plano.
+ * <p>
+ * La tabla se copia en el hilo de JavaFX con {@link #snapshot(List, Path, Format)} y la tarea la escribe por
+ * bloques de {@link #ROWS_PER_CHUNK} filas en un {@link FileChannel}, reportando su avance en
+ * {@link #progressProperty()}. Así la ventana sigue respondiendo aunque la tabla tenga millones de marcos.
+ * <p>
+ * Formatos:
+ * <ul>
+ *     <li>{@link Format#TEXT}: la tabla alineada de siempre ({@code FAT.txt}).</li>
+ *     <li>{@link Format#CSV}: una fila por marco con encabezado, para hojas de cálculo.</li>
+ *     <li>{@link Format#BINARY}: la cabecera {@code "FAT1"}, el número de filas y luego cinco enteros de 32 bits
+ *     (big-endian) por fila: página, fragmento, PID (-1 si está libre), ocupado y libre. La ruta del archivo se
+ *     omite porque se deduce del PID.</li>
+ * </ul>
+ */
+public class FatExportTask extends Task<Path> {
+
+    /** Los formatos de exportación disponibles. */
+    public enum Format {
+        TEXT, CSV, BINARY;
+
+        /** Elige el formato según la extensión del archivo; cualquier otra se exporta como texto. */
+        public static Format forFile(Path file) {
+            String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+            if (name.endsWith(".csv")) {
+                return CSV;
+            }
+            if (name.endsWith(".bin")) {
+                return BINARY;
+            }
+            return TEXT;
+        }
+    }
+
+    /** Las filas que se escriben entre cada actualización del progreso. */
+    static final int ROWS_PER_CHUNK = 8192;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int BINARY_ROW_BYTES = 5 * Integer.BYTES;
+
+    private final int[] pageNumbers;
+    private final int[] frames;
+    private final String[] pids;
+    private final int[] usedSpace;
+    private final int[] freeSpace;
+    private final String[] filePaths;
+    private final Path file;
+    private final Format format;
+
+    private FatExportTask(List<LifoController.MemoryPage> pages, Path file, Format format) {
+        int rows = pages.size();
+        this.pageNumbers = new int[rows];
+        this.frames = new int[rows];
+        this.pids = new String[rows];
+        this.usedSpace = new int[rows];
+        this.freeSpace = new int[rows];
+        this.filePaths = new String[rows];
+        for (int i = 0; i < rows; i++) {
+            LifoController.MemoryPage page = pages.get(i);
+            pageNumbers[i] = page.getPageNumber();
+            frames[i] = page.getFrame();
+            pids[i] = page.getProcessPid();
+            usedSpace[i] = page.getUsedSpace();
+            freeSpace[i] = page.getFreeSpace();
+            filePaths[i] = page.getFilePath();
+        }
+        this.file = file;
+        this.format = format;
+    }
+
+    /**
+     * Copia el contenido actual de la tabla de paginación. Debe llamarse en el hilo de JavaFX; la tarea
+     * resultante se puede ejecutar en cualquier otro hilo.
+     */
+    public static FatExportTask snapshot(List<LifoController.MemoryPage> pages, Path file, Format format) {
+        return new FatExportTask(pages, file, format);
+    }
+
+    @Override
+    protected Path call() throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            if (format == Format.BINARY) {
+                writeBinary(channel);
+            } else {
+                writeText(channel);
+            }
+        }
+        return file;
+    }
+
+    private void writeText(FileChannel channel) throws IOException {
+        Charset charset = Charset.defaultCharset();
+        String newLine = System.lineSeparator();
+        StringBuilder out = new StringBuilder(BUFFER_SIZE);
+
+        if (format == Format.TEXT) {
+            out.append("Reporte de Tabla de Paginación (FAT) - LIFO").append(newLine);
+            out.append("===========================================").append(newLine);
+            out.append(String.format("%-10s %-15s %-10s %-15s %-15s %-30s%n", "NO.PAG", "FRAGMENTO", "PROCESO",
+                    "OCUPADO(KB)", "LIBRE (KB)", "RUTA_ARCHIVO"));
+            out.append("---------------------------------------------------------------------------------------------------------")
+                    .append(newLine);
+        } else {
+            out.append("pagina,fragmento,proceso,ocupado_kb,libre_kb,ruta_archivo").append(newLine);
+        }
+
+        int rows = pageNumbers.length;
+        for (int start = 0; start < rows; start += ROWS_PER_CHUNK) {
+            if (isCancelled()) {
+                return;
+            }
+            int end = Math.min(rows, start + ROWS_PER_CHUNK);
+            for (int i = start; i < end; i++) {
+                if (format == Format.TEXT) {
+                    // Equivale a "%-10d %-15d %-10s %-15d %-15d %-30s%n" sin el costo de String.format por fila.
+                    pad(out, String.valueOf(pageNumbers[i]), 10).append(' ');
+                    pad(out, String.valueOf(frames[i]), 15).append(' ');
+                    pad(out, pids[i], 10).append(' ');
+                    pad(out, String.valueOf(usedSpace[i]), 15).append(' ');
+                    pad(out, String.valueOf(freeSpace[i]), 15).append(' ');
+                    pad(out, filePaths[i], 30).append(newLine);
+                } else {
+                    out.append(pageNumbers[i]).append(',')
+                            .append(frames[i]).append(',')
+                            .append(pids[i]).append(',')
+                            .append(usedSpace[i]).append(',')
+                            .append(freeSpace[i]).append(',')
+                            .append(filePaths[i]).append(newLine);
+                }
+            }
+            writeFully(channel, ByteBuffer.wrap(out.toString().getBytes(charset)));
+            out.setLength(0);
+            updateProgress(end, rows);
+        }
+        writeFully(channel, ByteBuffer.wrap(out.toString().getBytes(charset)));
+    }
+
+    private void writeBinary(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+        int rows = pageNumbers.length;
+        buffer.put(new byte[]{'F', 'A', 'T', '1'}).putInt(rows);
+
+        for (int start = 0; start < rows; start += ROWS_PER_CHUNK) {
+            if (isCancelled()) {
+                return;
+            }
+            int end = Math.min(rows, start + ROWS_PER_CHUNK);
+            for (int i = start; i < end; i++) {
+                if (buffer.remaining() < BINARY_ROW_BYTES) {
+                    buffer.flip();
+                    writeFully(channel, buffer);
+                    buffer.clear();
+                }
+                buffer.putInt(pageNumbers[i])
+                        .putInt(frames[i])
+                        .putInt(pids[i].equals("-") ? -1 : Integer.parseInt(pids[i]))
+                        .putInt(usedSpace[i])
+                        .putInt(freeSpace[i]);
+            }
+            updateProgress(end, rows);
+        }
+        buffer.flip();
+        writeFully(channel, buffer);
+    }
+
+    private static StringBuilder pad(StringBuilder out, String value, int width) {
+        out.append(value);
+        for (int i = value.length(); i < width; i++) {
+            out.append(' ');
+        }
+        return out;
+    }
+
+    private static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+}
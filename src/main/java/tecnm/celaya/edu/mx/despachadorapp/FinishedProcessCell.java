@@ -0,0 +1,27 @@
+package tecnm.celaya.edu.mx.despachadorapp;
+
+import javafx.scene.control.ListCell;
+
+/**
+ * Celda de la lista de procesos finalizados. Muestra el PID del proceso.
+ * <p>
+ * La lista es un {@link javafx.scene.control.ListView}, que solo crea celdas para las filas visibles
+ * y las reutiliza al desplazarse, así que mostrar 100k procesos finalizados cuesta lo mismo que mostrar 10.
+ */
+public class FinishedProcessCell extends ListCell<Process> {
+
+    public FinishedProcessCell() {
+        getStyleClass().add("finished-process-cell");
+    }
+
+    @Override
+    protected void updateItem(Process item, boolean empty) {
+        super.updateItem(item, empty);
+
+        if (empty || item == null) {
+            setText(null);
+        } else {
+            setText("PID: " + item.getPid());
+        }
+    }
+}
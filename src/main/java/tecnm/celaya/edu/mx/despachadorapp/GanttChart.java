@@ -0,0 +1,367 @@
+package tecnm.celaya.edu.mx.despachadorapp;
+
+import javafx.animation.AnimationTimer;
+import javafx.geometry.VPos;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.TextAlignment;
+
+import java.util.function.IntConsumer;
+
+/**
+ * Diagrama de Gantt de la CPU, dibujado en un {@link Canvas}.
+ * <p>
+ * Muestra el {@link GanttTimeline} de la corrida hasta el tick actual: un carril con un bloque por segmento,
+ * coloreado por pid, y un eje de tiempo. No crea un nodo por segmento; en cada frame en que algo cambió se dibuja
+ * solo lo que cabe en pantalla:
+ * <ul>
+ *     <li>Los segmentos visibles se ubican con búsqueda binaria, así que los que están fuera de la vista no
+ *     cuestan nada.</li>
+ *     <li>Si hay más segmentos visibles que medio pixel cada uno, se dibuja en su lugar el resumen por columna de
+ *     {@link GanttTimeline#aggregate}: el color del proceso que más ocupó la CPU en ese pixel y una altura
+ *     proporcional a la ocupación. Las columnas vecinas iguales se dibujan como un solo rectángulo.</li>
+ * </ul>
+ * Así el costo de un frame depende del ancho del diagrama y no de cuántos ticks o procesos tenga la corrida.
+ * <p>
+ * La rueda del ratón acerca o aleja alrededor del puntero, arrastrar desplaza la vista, doble clic vuelve a mostrar
+ * la corrida completa y un clic sencillo pide saltar a ese tick con {@link #setOnSeek(IntConsumer)}. Mientras la
+ * simulación avanza, la vista se desplaza para que el tick actual siga visible.
+ */
+public class GanttChart extends Region {
+
+    private static final double AXIS_HEIGHT = 18;
+    private static final double LANE_PADDING = 4;
+    /** Acercamiento máximo. */
+    private static final double MAX_PIXELS_PER_TICK = 60;
+    /** Separación mínima entre las marcas del eje. */
+    private static final double MIN_LABEL_SPACING = 70;
+    /** Ancho aproximado de un dígito, para decidir si el pid cabe en su bloque. */
+    private static final double DIGIT_WIDTH = 7;
+
+    private static final Color BACKGROUND = Color.web("#2e2e2e");
+    private static final Color LANE = Color.web("#252525");
+    private static final Color TEXT = Color.web("#cccccc");
+    private static final Color LABEL = Color.web("#1e1e1e");
+    private static final Color CURSOR = Color.web("#ff5555");
+    private static final Font FONT = Font.font(11);
+
+    /** Los colores de los procesos. Los pids consecutivos quedan separados por el ángulo áureo. */
+    private static final Color[] PALETTE = new Color[32];
+
+    static {
+        for (int i = 0; i < PALETTE.length; i++) {
+            PALETTE[i] = Color.hsb((i * 137.508) % 360, 0.55, 0.9);
+        }
+    }
+
+    private final Canvas canvas = new Canvas();
+    private final AnimationTimer repaint;
+    private boolean dirty = false;
+
+    private GanttTimeline timeline;
+    private int time = -1;
+    private IntConsumer onSeek;
+
+    // --- Vista ---
+    private boolean fitAll = true; // Muestra la corrida completa y se ajusta al ancho.
+    private double viewStart = 0;
+    private double ticksPerPixel = 1;
+
+    // --- Arrastre ---
+    private double dragX;
+    private boolean dragged;
+
+    // Columnas del resumen, reutilizadas entre frames.
+    private int[] columnPids = new int[0];
+    private float[] columnBusy = new float[0];
+
+    public GanttChart() {
+        getStyleClass().add("gantt-chart");
+        getChildren().add(canvas);
+
+        // Redibuja como máximo una vez por pulso, aunque lleguen varios cambios en el mismo frame.
+        repaint = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                stop();
+                if (dirty) {
+                    dirty = false;
+                    draw();
+                }
+            }
+        };
+
+        setOnScroll(this::zoom);
+        setOnMousePressed(this::startDrag);
+        setOnMouseDragged(this::drag);
+        setOnMouseClicked(this::click);
+    }
+
+    /** Muestra otra corrida, completa. Con {@code null} el diagrama queda vacío. */
+    public void setTimeline(GanttTimeline timeline) {
+        this.timeline = timeline;
+        fitAll = true;
+        markDirty();
+    }
+
+    /**
+     * Mueve el cursor al último tick ejecutado; solo se dibuja la corrida hasta ahí. Si el cursor estaba visible
+     * y sale de la vista, la vista lo sigue.
+     */
+    public void setTime(int time) {
+        double width = canvas.getWidth();
+        if (!fitAll && width > 0) {
+            double span = width * ticksPerPixel;
+            double previous = this.time + 1;
+            double cursor = time + 1;
+            boolean wasVisible = previous >= viewStart && previous <= viewStart + span;
+            if (wasVisible && cursor > viewStart + span) {
+                viewStart = cursor - span * 0.75;
+            } else if (wasVisible && cursor < viewStart) {
+                viewStart = cursor - span * 0.25;
+            }
+            clampView();
+        }
+        this.time = time;
+        markDirty();
+    }
+
+    /** @param onSeek Recibe el tick en que el usuario hizo clic. */
+    public void setOnSeek(IntConsumer onSeek) {
+        this.onSeek = onSeek;
+    }
+
+    @Override
+    protected void layoutChildren() {
+        double width = snapSizeX(getWidth() - snappedLeftInset() - snappedRightInset());
+        double height = snapSizeY(getHeight() - snappedTopInset() - snappedBottomInset());
+        canvas.relocate(snappedLeftInset(), snappedTopInset());
+        if (width != canvas.getWidth() || height != canvas.getHeight()) {
+            canvas.setWidth(Math.max(0, width));
+            canvas.setHeight(Math.max(0, height));
+            markDirty();
+        }
+    }
+
+    @Override
+    protected double computePrefHeight(double width) {
+        return snappedTopInset() + 80 + snappedBottomInset();
+    }
+
+    @Override
+    protected double computeMinHeight(double width) {
+        return snappedTopInset() + AXIS_HEIGHT + 2 * LANE_PADDING + 10 + snappedBottomInset();
+    }
+
+    private void markDirty() {
+        dirty = true;
+        repaint.start();
+    }
+
+    //<editor-fold desc="Vista">
+
+    /** @return Los ticks que abarca la vista completa: la corrida y, si ya pasó de ella, el tick actual. */
+    private double fullSpan() {
+        int end = timeline != null ? timeline.getEndTick() : 0;
+        return Math.max(1, Math.max(end, time + 1));
+    }
+
+    /** Actualiza la escala si se muestra la corrida completa. */
+    private void updateFit() {
+        if (fitAll && canvas.getWidth() > 0) {
+            viewStart = 0;
+            ticksPerPixel = fullSpan() / canvas.getWidth();
+        }
+    }
+
+    private void clampView() {
+        double span = canvas.getWidth() * ticksPerPixel;
+        viewStart = Math.max(0, Math.min(viewStart, fullSpan() - span));
+    }
+
+    private void zoom(ScrollEvent event) {
+        double width = canvas.getWidth();
+        if (timeline == null || width <= 0 || event.getDeltaY() == 0) {
+            return;
+        }
+        updateFit();
+        double x = event.getX() - snappedLeftInset();
+        double anchor = viewStart + x * ticksPerPixel;
+        double fitTicksPerPixel = fullSpan() / width;
+        double scaled = ticksPerPixel * Math.pow(2, -event.getDeltaY() / 200);
+        ticksPerPixel = Math.max(1 / MAX_PIXELS_PER_TICK, Math.min(scaled, fitTicksPerPixel));
+        fitAll = ticksPerPixel >= fitTicksPerPixel;
+        viewStart = anchor - x * ticksPerPixel;
+        clampView();
+        markDirty();
+        event.consume();
+    }
+
+    private void startDrag(MouseEvent event) {
+        dragX = event.getX();
+        dragged = false;
+    }
+
+    private void drag(MouseEvent event) {
+        if (fitAll) {
+            return; // La corrida completa ya está a la vista.
+        }
+        viewStart -= (event.getX() - dragX) * ticksPerPixel;
+        dragX = event.getX();
+        dragged = true;
+        clampView();
+        markDirty();
+    }
+
+    private void click(MouseEvent event) {
+        if (event.getButton() != MouseButton.PRIMARY || dragged) {
+            return;
+        }
+        if (event.getClickCount() == 2) {
+            fitAll = true;
+            markDirty();
+        } else if (onSeek != null && timeline != null) {
+            updateFit();
+            double tick = viewStart + (event.getX() - snappedLeftInset()) * ticksPerPixel;
+            onSeek.accept((int) Math.max(0, Math.floor(tick)));
+        }
+    }
+    //</editor-fold>
+
+    //<editor-fold desc="Dibujo">
+    private void draw() {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        double width = canvas.getWidth();
+        double height = canvas.getHeight();
+        gc.setFill(BACKGROUND);
+        gc.fillRect(0, 0, width, height);
+        if (timeline == null || width <= 0) {
+            return;
+        }
+        updateFit();
+        clampView();
+
+        double laneTop = LANE_PADDING;
+        double laneHeight = Math.max(0, height - AXIS_HEIGHT - 2 * LANE_PADDING);
+        gc.setFill(LANE);
+        gc.fillRect(0, laneTop, width, laneHeight);
+
+        gc.setFont(FONT);
+        gc.setTextBaseline(VPos.CENTER);
+        gc.setTextAlign(TextAlignment.CENTER);
+
+        // Solo se dibuja lo que ya se ejecutó.
+        double from = viewStart;
+        double limit = Math.min(from + width * ticksPerPixel, time + 1);
+        if (limit > from) {
+            int first = timeline.firstEndingAfter(from);
+            int last = timeline.firstStartingFrom(limit);
+            if (last - first <= width / 2) {
+                drawSegments(gc, first, last, from, limit, laneTop, laneHeight);
+            } else {
+                drawColumns(gc, from, limit, laneTop, laneHeight);
+            }
+        }
+
+        drawAxis(gc, width, height);
+
+        double cursorX = (time + 1 - from) / ticksPerPixel;
+        if (time >= 0 && cursorX >= 0 && cursorX <= width) {
+            gc.setStroke(CURSOR);
+            gc.setLineWidth(1);
+            gc.strokeLine(Math.round(cursorX) + 0.5, 0, Math.round(cursorX) + 0.5, laneTop + laneHeight);
+        }
+    }
+
+    /** Dibuja un bloque por segmento, con su pid si cabe. */
+    private void drawSegments(GraphicsContext gc, int first, int last, double from, double limit,
+                              double laneTop, double laneHeight) {
+        for (int i = first; i < last; i++) {
+            double x0 = (Math.max(timeline.getStart(i), from) - from) / ticksPerPixel;
+            double x1 = (Math.min(timeline.getEnd(i), limit) - from) / ticksPerPixel;
+            double blockWidth = Math.max(1, x1 - x0);
+            int pid = timeline.getPid(i);
+            gc.setFill(colorOf(pid));
+            // Con espacio suficiente se deja un pixel libre para que se distingan los bloques consecutivos.
+            gc.fillRect(x0, laneTop, blockWidth > 4 ? blockWidth - 1 : blockWidth, laneHeight);
+            if (blockWidth >= (digits(pid) + 1) * DIGIT_WIDTH) {
+                gc.setFill(LABEL);
+                gc.fillText(String.valueOf(pid), x0 + blockWidth / 2, laneTop + laneHeight / 2);
+            }
+        }
+    }
+
+    /** Dibuja el resumen por pixel de {@link GanttTimeline#aggregate}. */
+    private void drawColumns(GraphicsContext gc, double from, double limit, double laneTop, double laneHeight) {
+        int columns = (int) Math.min(canvas.getWidth(), Math.ceil((limit - from) / ticksPerPixel));
+        if (columnPids.length < columns) {
+            columnPids = new int[columns];
+            columnBusy = new float[columns];
+        }
+        timeline.aggregate(from, ticksPerPixel, columns, columnPids, columnBusy);
+
+        int c = 0;
+        while (c < columns) {
+            int barHeight = (int) Math.round(laneHeight * columnBusy[c]);
+            if (barHeight == 0) {
+                c++;
+                continue;
+            }
+            int pid = columnPids[c];
+            int end = c + 1;
+            while (end < columns && columnPids[end] == pid
+                    && (int) Math.round(laneHeight * columnBusy[end]) == barHeight) {
+                end++;
+            }
+            gc.setFill(colorOf(pid));
+            gc.fillRect(c, laneTop + laneHeight - barHeight, end - c, barHeight);
+            c = end;
+        }
+    }
+
+    /** Dibuja el eje de tiempo con marcas cada 1, 2 o 5 veces una potencia de 10 ticks. */
+    private void drawAxis(GraphicsContext gc, double width, double height) {
+        double minStep = Math.max(1, MIN_LABEL_SPACING * ticksPerPixel);
+        double magnitude = Math.pow(10, Math.floor(Math.log10(minStep)));
+        double step = magnitude;
+        if (step < minStep) {
+            step = 2 * magnitude;
+        }
+        if (step < minStep) {
+            step = 5 * magnitude;
+        }
+        if (step < minStep) {
+            step = 10 * magnitude;
+        }
+
+        double axisTop = height - AXIS_HEIGHT;
+        gc.setStroke(TEXT);
+        gc.setFill(TEXT);
+        gc.setLineWidth(1);
+        double to = viewStart + width * ticksPerPixel;
+        for (double tick = Math.ceil(viewStart / step) * step; tick <= to; tick += step) {
+            double x = Math.round((tick - viewStart) / ticksPerPixel) + 0.5;
+            gc.strokeLine(x, axisTop, x, axisTop + 4);
+            gc.fillText(String.valueOf((long) tick), x, axisTop + AXIS_HEIGHT / 2 + 2);
+        }
+    }
+    //</editor-fold>
+
+    private static Color colorOf(int pid) {
+        return PALETTE[Math.floorMod(pid, PALETTE.length)];
+    }
+
+    private static int digits(int pid) {
+        int digits = pid < 0 ? 2 : 1;
+        for (long value = Math.abs((long) pid); value >= 10; value /= 10) {
+            digits++;
+        }
+        return digits;
+    }
+}
@@ -0,0 +1,272 @@
+package tecnm.celaya.edu.mx.despachadorapp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Historial de ocupación de la CPU de una corrida completa, listo para dibujarse como diagrama de Gantt.
+ * <p>
+ * Cada segmento es un intervalo {@code [inicio, fin)} de ticks en el que un proceso estuvo en la CPU, desde su
+ * despacho hasta que terminó o agotó su quantum. Como hay una sola CPU, los segmentos no se traslapan y quedan
+ * ordenados por inicio, así que los visibles en un intervalo se encuentran con búsqueda binaria.
+ * <p>
+ * Para las vistas alejadas, donde un pixel cubre muchos segmentos, se construye una pirámide de niveles de
+ * detalle: el nivel 0 divide la corrida en cubetas de {@code 2^k} ticks (con {@code k} tal que haya a lo más una
+ * cubeta por segmento) y cada nivel siguiente junta las cubetas de dos en dos. Cada cubeta guarda cuántos ticks
+ * estuvo ocupada la CPU y el pid del segmento más largo que contiene, que es el color con que se dibuja. Así
+ * {@link #aggregate} resume cualquier intervalo en tantas columnas como pixeles tenga el diagrama, recorriendo a
+ * solo unas pocas cubetas por columna sin importar cuántos ticks o procesos haya.
+ * <p>
+ * Es inmutable: se construye en segundo plano y después se puede leer desde cualquier hilo.
+ */
+public final class GanttTimeline {
+
+    private final int[] starts;
+    private final int[] ends;
+    private final int[] pids;
+    private final int count;
+
+    /** Log2 del tamaño de las cubetas del nivel 0. */
+    private final int baseShift;
+    /** Por nivel y cubeta: ticks de CPU ocupada. */
+    private final int[][] busy;
+    /** Por nivel y cubeta: pid del segmento más largo. */
+    private final int[][] dominant;
+    /** Por nivel y cubeta: ticks de ese segmento dentro de la cubeta. */
+    private final int[][] weight;
+
+    /**
+     * Recibe los eventos de una corrida de una sola CPU hacia adelante y arma los segmentos. Si el motor
+     * retrocede con {@link SimulationEngine#seek(int)} los ticks re-ejecutados se duplicarían, así que solo se
+     * debe usar con una corrida completa, como en {@link #simulate}.
+     */
+    public static final class Builder implements SimulationListener {
+        private int[] starts = new int[16];
+        private int[] ends = new int[16];
+        private int[] pids = new int[16];
+        private int count = 0;
+        private int openStart = -1;
+
+        @Override
+        public void onDispatched(Process p, int tick) {
+            openStart = tick;
+        }
+
+        @Override
+        public void onPreempted(Process p, int tick) {
+            close(p, tick); // La expulsión ocurre al inicio del tick, antes de ejecutarlo.
+        }
+
+        @Override
+        public void onFinished(Process p, int tick) {
+            close(p, tick + 1); // Termina al final del tick.
+        }
+
+        private void close(Process p, int end) {
+            if (openStart < 0) {
+                throw new IllegalStateException("El proceso " + p.getPid() + " salió de la CPU sin ser despachado");
+            }
+            if (count == starts.length) {
+                starts = Arrays.copyOf(starts, count * 2);
+                ends = Arrays.copyOf(ends, count * 2);
+                pids = Arrays.copyOf(pids, count * 2);
+            }
+            starts[count] = openStart;
+            ends[count] = end;
+            pids[count] = p.getPid();
+            count++;
+            openStart = -1;
+        }
+
+        public GanttTimeline build() {
+            return new GanttTimeline(Arrays.copyOf(starts, count), Arrays.copyOf(ends, count),
+                    Arrays.copyOf(pids, count), count);
+        }
+    }
+
+    private GanttTimeline(int[] starts, int[] ends, int[] pids, int count) {
+        this.starts = starts;
+        this.ends = ends;
+        this.pids = pids;
+        this.count = count;
+
+        int endTick = getEndTick();
+        int shift = 0;
+        while ((((long) endTick - 1) >> shift) + 1 > Math.max(count, 1)) {
+            shift++;
+        }
+        baseShift = shift;
+
+        List<int[]> busyLevels = new ArrayList<>();
+        List<int[]> dominantLevels = new ArrayList<>();
+        List<int[]> weightLevels = new ArrayList<>();
+        int buckets = endTick == 0 ? 1 : (int) ((((long) endTick - 1) >> shift) + 1);
+        int[] levelBusy = new int[buckets];
+        int[] levelDominant = new int[buckets];
+        int[] levelWeight = new int[buckets];
+        for (int i = 0; i < count; i++) {
+            for (int b = starts[i] >> shift; (long) b << shift < ends[i]; b++) {
+                long bucketStart = (long) b << shift;
+                long bucketEnd = bucketStart + (1L << shift);
+                int overlap = (int) (Math.min(ends[i], bucketEnd) - Math.max(starts[i], bucketStart));
+                levelBusy[b] += overlap;
+                if (overlap > levelWeight[b]) {
+                    levelWeight[b] = overlap;
+                    levelDominant[b] = pids[i];
+                }
+            }
+        }
+        busyLevels.add(levelBusy);
+        dominantLevels.add(levelDominant);
+        weightLevels.add(levelWeight);
+
+        while (levelBusy.length > 1) {
+            int parents = (levelBusy.length + 1) / 2;
+            int[] parentBusy = new int[parents];
+            int[] parentDominant = new int[parents];
+            int[] parentWeight = new int[parents];
+            for (int b = 0; b < levelBusy.length; b++) {
+                int parent = b >> 1;
+                parentBusy[parent] += levelBusy[b];
+                if (levelWeight[b] > parentWeight[parent]) {
+                    parentWeight[parent] = levelWeight[b];
+                    parentDominant[parent] = levelDominant[b];
+                }
+            }
+            levelBusy = parentBusy;
+            levelDominant = parentDominant;
+            levelWeight = parentWeight;
+            busyLevels.add(levelBusy);
+            dominantLevels.add(levelDominant);
+            weightLevels.add(levelWeight);
+        }
+        busy = busyLevels.toArray(new int[0][]);
+        dominant = dominantLevels.toArray(new int[0][]);
+        weight = weightLevels.toArray(new int[0][]);
+    }
+
+    /**
+     * Simula una copia de la carga de trabajo hasta el final y devuelve su historial. La carga original no se
+     * modifica, así que se puede llamar en segundo plano mientras la vista la muestra.
+     */
+    public static GanttTimeline simulate(SchedulingPolicy policy, List<Process> workload) {
+        List<Process> copy = Process.copyAll(workload);
+        Builder builder = new Builder();
+        SimulationEngine engine = new SimulationEngine(policy, SimulationEngine.DEFAULT_CHECKPOINT_INTERVAL, 0);
+        engine.setListener(builder);
+        engine.load(copy);
+        engine.runToCompletion();
+        return builder.build();
+    }
+
+    public int getSegmentCount() {
+        return count;
+    }
+
+    /** @return El tick en que termina el último segmento (exclusivo); 0 si no hubo ninguno. */
+    public int getEndTick() {
+        return count == 0 ? 0 : ends[count - 1];
+    }
+
+    public int getStart(int segment) {
+        return starts[segment];
+    }
+
+    /** @return El primer tick después del segmento. */
+    public int getEnd(int segment) {
+        return ends[segment];
+    }
+
+    public int getPid(int segment) {
+        return pids[segment];
+    }
+
+    /** @return El primer segmento que termina después de {@code tick}, o {@link #getSegmentCount()} si no hay. */
+    public int firstEndingAfter(double tick) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (ends[mid] > tick) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /** @return El primer segmento que empieza en {@code tick} o después, o {@link #getSegmentCount()} si no hay. */
+    public int firstStartingFrom(double tick) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (starts[mid] >= tick) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Resume la ocupación de la CPU en columnas de igual ancho, empezando en {@code from}. Usa el nivel de la
+     * pirámide con las cubetas más grandes que aún caben en una columna (o el nivel 0, si incluso esas son más
+     * anchas). Cada cubeta se reparte entre las columnas que cubre como si su ocupación fuera uniforme, así que el
+     * resultado es aproximado al nivel de una cubeta, pero la ocupación total se conserva.
+     *
+     * @param ticksPerColumn Ticks que cubre cada columna, normalmente los de un pixel.
+     * @param pidOut         Recibe el pid que domina cada columna; solo tiene sentido si su ocupación no es 0.
+     * @param busyOut        Recibe la fracción de la columna en que la CPU estuvo ocupada, de 0 a 1.
+     */
+    public void aggregate(double from, double ticksPerColumn, int columns, int[] pidOut, float[] busyOut) {
+        int level = 0;
+        while (level + 1 < busy.length && (1L << (baseShift + level + 1)) <= ticksPerColumn) {
+            level++;
+        }
+        int shift = baseShift + level;
+        double bucketSize = 1L << shift;
+        int[] levelBusy = busy[level];
+        int[] levelDominant = dominant[level];
+        int[] levelWeight = weight[level];
+
+        Arrays.fill(busyOut, 0, columns, 0);
+        double[] bestWeight = new double[columns];
+        double to = from + ticksPerColumn * columns;
+        long first = Math.max(0, (long) Math.floor(from) >> shift);
+        long last = Math.min(levelBusy.length, ((long) Math.ceil(to) >> shift) + 1);
+        for (long b = first; b < last; b++) {
+            int bucket = (int) b;
+            if (levelBusy[bucket] == 0) {
+                continue;
+            }
+            double bucketStart = (double) (b << shift);
+            double bucketEnd = bucketStart + bucketSize;
+            double firstOffset = Math.floor((bucketStart - from) / ticksPerColumn);
+            if (firstOffset >= columns) {
+                break;
+            }
+            int firstColumn = (int) Math.max(0, firstOffset);
+            int lastColumn = (int) Math.min(columns - 1, Math.floor((bucketEnd - from) / ticksPerColumn));
+            for (int c = firstColumn; c <= lastColumn; c++) {
+                double share = 1;
+                if (lastColumn > firstColumn) {
+                    double columnStart = from + c * ticksPerColumn;
+                    share = (Math.min(bucketEnd, columnStart + ticksPerColumn) - Math.max(bucketStart, columnStart))
+                            / bucketSize;
+                }
+                busyOut[c] += (float) (levelBusy[bucket] * share);
+                if (levelWeight[bucket] * share > bestWeight[c]) {
+                    bestWeight[c] = levelWeight[bucket] * share;
+                    pidOut[c] = levelDominant[bucket];
+                }
+            }
+        }
+        for (int c = 0; c < columns; c++) {
+            busyOut[c] = (float) Math.min(1, busyOut[c] / ticksPerColumn);
+        }
+    }
+}
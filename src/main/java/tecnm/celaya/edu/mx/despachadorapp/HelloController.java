@@ -69,8 +69,10 @@ public class HelloController {
             FXMLLoader fxmlLoader = new FXMLLoader(getClass().getResource(fxmlFile));
 
             // 2. Cargar el FXML para crear la escena y aplicar la hoja de estilos.
-            Scene scene = new Scene(fxmlLoader.load(), 800, 600);
+            Scene scene = new Scene(fxmlLoader.load(), 800, 680);
             scene.getStylesheets().add(getClass().getResource("dark-theme.css").toExternalForm());
+            // Los cambios de los procesos se publican en la tabla una sola vez por frame.
+            PropertyBatcher.install(scene);
 
             // 3. Crear una nueva ventana (Stage) para la simulación.
             Stage stage = new Stage();
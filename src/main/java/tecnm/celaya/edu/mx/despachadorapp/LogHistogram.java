@@ -0,0 +1,154 @@
+package tecnm.celaya.edu.mx.despachadorapp;
+
+import java.util.Arrays;
+
+/**
+ * Histograma de valores enteros no negativos con cubetas log-lineales, al estilo de HdrHistogram.
+ * <p>
+ * Los valores menores a {@code 2^precisionBits} tienen una cubeta cada uno; a partir de ahí, cada potencia de dos
+ * se divide en {@code 2^precisionBits} cubetas iguales. Así el error relativo de un percentil nunca pasa de
+ * {@code 1 / 2^precisionBits} (menos de 1% con 7 bits), la memoria no depende de cuántos valores se registren
+ * (unos pocos KB para todo el rango de {@code int}) y registrar un valor cuesta O(1) sin asignar memoria.
+ * <p>
+ * La cuenta, la suma, el mínimo y el máximo se guardan exactos, así que la media y la desviación estándar no
+ * tienen error. Dos histogramas con la misma precisión se pueden combinar con {@link #add(LogHistogram)}.
+ */
+public class LogHistogram {
+
+    /** La precisión por defecto: 128 cubetas por potencia de dos, error relativo menor a 0.8%. */
+    public static final int DEFAULT_PRECISION_BITS = 7;
+
+    private final int precisionBits;
+    private final int subBucketCount;
+    private long[] counts;
+
+    private long count;
+    private long sum;
+    private double sumOfSquares;
+    private int min = Integer.MAX_VALUE;
+    private int max = 0;
+
+    public LogHistogram() {
+        this(DEFAULT_PRECISION_BITS);
+    }
+
+    /**
+     * @param precisionBits Bits de precisión, de 1 a 16. Cada bit adicional reduce el error a la mitad y
+     *                      duplica la memoria.
+     */
+    public LogHistogram(int precisionBits) {
+        if (precisionBits < 1 || precisionBits > 16) {
+            throw new IllegalArgumentException("La precisión debe estar entre 1 y 16 bits");
+        }
+        this.precisionBits = precisionBits;
+        this.subBucketCount = 1 << precisionBits;
+        this.counts = new long[2 * subBucketCount];
+    }
+
+    /**
+     * Registra un valor.
+     *
+     * @param value El valor, mayor o igual a 0.
+     */
+    public void record(int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException("El histograma no admite valores negativos: " + value);
+        }
+        int index = indexOf(value);
+        if (index >= counts.length) {
+            counts = Arrays.copyOf(counts, Math.max(index + 1, counts.length + subBucketCount));
+        }
+        counts[index]++;
+        count++;
+        sum += value;
+        sumOfSquares += (double) value * value;
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+    }
+
+    /** Suma a este histograma todos los valores de otro con la misma precisión. */
+    public void add(LogHistogram other) {
+        if (other.precisionBits != precisionBits) {
+            throw new IllegalArgumentException("Los histogramas tienen distinta precisión");
+        }
+        if (other.counts.length > counts.length) {
+            counts = Arrays.copyOf(counts, other.counts.length);
+        }
+        for (int i = 0; i < other.counts.length; i++) {
+            counts[i] += other.counts[i];
+        }
+        count += other.count;
+        sum += other.sum;
+        sumOfSquares += other.sumOfSquares;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+
+    /** Cubeta de un valor: lineal hasta {@code 2^precisionBits} y log-lineal después. */
+    private int indexOf(int value) {
+        if (value < subBucketCount) {
+            return value;
+        }
+        int shift = 31 - Integer.numberOfLeadingZeros(value) - precisionBits;
+        return ((shift + 1) << precisionBits) + ((value >>> shift) - subBucketCount);
+    }
+
+    /** @return El mayor valor que cae en la misma cubeta que el de índice {@code index}. */
+    private long highestValueOf(int index) {
+        if (index < subBucketCount) {
+            return index;
+        }
+        int shift = (index >>> precisionBits) - 1;
+        long lowest = (long) ((index & (subBucketCount - 1)) + subBucketCount) << shift;
+        return lowest + (1L << shift) - 1;
+    }
+
+    /**
+     * @param percentile El percentil, de 0 a 100.
+     * @return El valor por debajo del cual (o igual) está ese porcentaje de los valores registrados, con el error
+     *         de la cubeta; 0 si el histograma está vacío.
+     */
+    public int getValueAtPercentile(double percentile) {
+        if (count == 0) {
+            return 0;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(Math.max(percentile, 0), 100) / 100 * count));
+        long seen = 0;
+        for (int i = 0; i < counts.length; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return (int) Math.max(Math.min(highestValueOf(i), max), min);
+            }
+        }
+        return max;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    public long getSum() {
+        return sum;
+    }
+
+    public double getMean() {
+        return count == 0 ? 0 : (double) sum / count;
+    }
+
+    public double getStdDev() {
+        if (count == 0) {
+            return 0;
+        }
+        double mean = getMean();
+        return Math.sqrt(Math.max(sumOfSquares / count - mean * mean, 0));
+    }
+
+    /** @return El menor valor registrado, o 0 si el histograma está vacío. */
+    public int getMin() {
+        return count == 0 ? 0 : min;
+    }
+
+    public int getMax() {
+        return max;
+    }
+}
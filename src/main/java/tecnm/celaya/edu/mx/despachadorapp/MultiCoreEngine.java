@@ -0,0 +1,296 @@
+package tecnm.celaya.edu.mx.despachadorapp;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Motor de simulación con varios núcleos, cada uno con su propia cola de listos.
+ * <p>
+ * Sigue las mismas reglas que {@link SimulationEngine} y en el mismo orden dentro de cada tick (llegadas,
+ * expulsión por quantum, despacho y finalización), pero con {@code coreCount} CPUs:
+ * <ul>
+ *     <li>Cada proceso que llega se asigna al núcleo menos cargado (menos procesos en cola más el que ejecuta;
+ *     en empate, el de menor índice) y se encola según la {@link SchedulingPolicy}.</li>
+ *     <li>Con robo de trabajo, un núcleo libre con la cola vacía toma el siguiente proceso de la cola más larga.</li>
+ *     <li>Con migración, un proceso expulsado por quantum regresa a la cola del núcleo menos cargado en lugar
+ *     de a la suya.</li>
+ * </ul>
+ * Cada proceso robado o migrado cuenta como una migración. Al final se puede consultar la utilización de cada
+ * núcleo y el desbalance de carga entre ellos.
+ * <p>
+ * Es un motor para corridas por lotes: avanza de evento en evento pero no guarda checkpoints ni retrocede. La
+ * memoria paginada de LIFO no se modela; con varios núcleos, LIFO se comporta como una pila sin memoria.
+ * Con un núcleo y sin robo ni migración produce exactamente los mismos resultados que {@link SimulationEngine}.
+ */
+public class MultiCoreEngine {
+
+    /** Un núcleo: su cola de listos, el proceso que ejecuta y sus contadores. */
+    private static final class Core {
+        final Queue<Process> readyQueue;
+        Process running;
+        int dispatchTick;
+        int remainingAtDispatch;
+        long busyTicks;
+        long dispatches;
+
+        Core(Queue<Process> readyQueue) {
+            this.readyQueue = readyQueue;
+        }
+
+        int load() {
+            return readyQueue.size() + (running != null ? 1 : 0);
+        }
+
+        int completionTick() {
+            return dispatchTick + Math.max(remainingAtDispatch, 1) - 1;
+        }
+    }
+
+    private final SchedulingPolicy policy;
+    private final int quantum;
+    private final boolean workStealing;
+    private final boolean migrateOnPreempt;
+    private final Core[] cores;
+
+    private Process[] arrivalOrder = new Process[0];
+    private int arrivalCursor = 0;
+    private int finishedCount = 0;
+    private int queuedCount = 0;
+    private long migrations = 0;
+    private int time = -1;
+
+    private SimulationListener listener = new SimulationListener() { };
+
+    /**
+     * @param coreCount        Número de núcleos, al menos 1.
+     * @param workStealing     Si un núcleo libre toma trabajo de la cola más larga.
+     * @param migrateOnPreempt Si un proceso expulsado por quantum pasa al núcleo menos cargado.
+     */
+    public MultiCoreEngine(SchedulingPolicy policy, int coreCount, boolean workStealing, boolean migrateOnPreempt) {
+        if (coreCount < 1) {
+            throw new IllegalArgumentException("Se necesita al menos un núcleo");
+        }
+        this.policy = policy;
+        this.quantum = policy.getQuantum();
+        this.workStealing = workStealing;
+        this.migrateOnPreempt = migrateOnPreempt;
+        this.cores = new Core[coreCount];
+        for (int i = 0; i < coreCount; i++) {
+            cores[i] = new Core(SimulationEngine.newReadyQueue(policy));
+        }
+    }
+
+    public void setListener(SimulationListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Carga una nueva lista de procesos y deja el motor en su estado inicial.
+     */
+    public void load(List<Process> processes) {
+        arrivalOrder = processes.toArray(new Process[0]);
+        Arrays.sort(arrivalOrder, Comparator.comparingInt(Process::getArrivalTime));
+        arrivalCursor = 0;
+        finishedCount = 0;
+        queuedCount = 0;
+        migrations = 0;
+        time = -1;
+        for (int i = 0; i < cores.length; i++) {
+            cores[i] = new Core(SimulationEngine.newReadyQueue(policy));
+        }
+        for (Process p : arrivalOrder) {
+            p.setState(ProcessState.NEW);
+            p.setRemainingDuration(p.getDuration());
+        }
+    }
+
+    /**
+     * Ejecuta la simulación hasta que todos los procesos finalicen.
+     *
+     * @return `true` si todos los procesos finalizaron.
+     */
+    public boolean runToCompletion() {
+        while (finishedCount < arrivalOrder.length) {
+            int next = nextEventTick();
+            if (next == Integer.MAX_VALUE) {
+                break;
+            }
+            runTick(next);
+        }
+        return finishedCount == arrivalOrder.length;
+    }
+
+    /**
+     * @return El próximo tick en el que algo cambia: una llegada, el fin de un quantum, una finalización o un
+     *         núcleo libre que puede tomar trabajo. Cuesta O(núcleos).
+     */
+    private int nextEventTick() {
+        int next = arrivalCursor < arrivalOrder.length ? arrivalOrder[arrivalCursor].getArrivalTime() : Integer.MAX_VALUE;
+        for (Core core : cores) {
+            if (core.running != null) {
+                next = Math.min(next, core.completionTick());
+                if (quantum > 0 && core.remainingAtDispatch > quantum) {
+                    next = Math.min(next, core.dispatchTick + quantum);
+                }
+            } else if (!core.readyQueue.isEmpty() || (workStealing && queuedCount > 0)) {
+                return time + 1;
+            }
+        }
+        return next;
+    }
+
+    private void runTick(int tick) {
+        time = tick;
+
+        // 1. Llegada de procesos: cada uno va a la cola del núcleo menos cargado.
+        while (arrivalCursor < arrivalOrder.length && arrivalOrder[arrivalCursor].getArrivalTime() == tick) {
+            Process p = arrivalOrder[arrivalCursor++];
+            if (p.getState() != ProcessState.NEW) {
+                continue; // Aparecía repetido en la lista.
+            }
+            listener.onArrived(p, tick);
+            p.setState(ProcessState.WAITING);
+            enqueue(leastLoaded(), p);
+            listener.onAdmitted(p, tick);
+        }
+
+        // 2. Expulsión por quantum.
+        if (quantum > 0) {
+            for (Core core : cores) {
+                if (core.running != null && tick - core.dispatchTick >= quantum) {
+                    Process p = core.running;
+                    p.setRemainingDuration(core.remainingAtDispatch - (tick - core.dispatchTick));
+                    core.busyTicks += tick - core.dispatchTick;
+                    core.running = null;
+                    if (p.getRemainingDuration() > 0) {
+                        p.setState(ProcessState.WAITING);
+                        Core target = core;
+                        if (migrateOnPreempt) {
+                            target = leastLoaded();
+                            if (target != core) {
+                                migrations++;
+                            }
+                        }
+                        enqueue(target, p);
+                        listener.onPreempted(p, tick);
+                    }
+                }
+            }
+        }
+
+        // 3. Despacho: cada núcleo libre toma de su cola o, con robo de trabajo, de la cola más larga.
+        for (Core core : cores) {
+            if (core.running != null) {
+                continue;
+            }
+            if (core.readyQueue.isEmpty() && workStealing && queuedCount > 0) {
+                Core victim = longestQueue();
+                core.readyQueue.add(victim.readyQueue.remove());
+                migrations++;
+            }
+            if (!core.readyQueue.isEmpty()) {
+                Process p = core.readyQueue.remove();
+                queuedCount--;
+                p.setState(ProcessState.RUNNING);
+                core.running = p;
+                core.dispatchTick = tick;
+                core.remainingAtDispatch = p.getRemainingDuration();
+                core.dispatches++;
+                listener.onDispatched(p, tick);
+            }
+        }
+
+        // 4. Trabajo de la CPU y finalización.
+        for (Core core : cores) {
+            if (core.running != null && tick == core.completionTick()) {
+                Process p = core.running;
+                core.busyTicks += tick - core.dispatchTick + 1;
+                core.running = null;
+                p.setState(ProcessState.FINISHED);
+                p.setRemainingDuration(0);
+                finishedCount++;
+                listener.onFinished(p, tick);
+            }
+        }
+    }
+
+    private void enqueue(Core core, Process p) {
+        core.readyQueue.add(p);
+        queuedCount++;
+    }
+
+    private Core leastLoaded() {
+        Core best = cores[0];
+        for (int i = 1; i < cores.length; i++) {
+            if (cores[i].load() < best.load()) {
+                best = cores[i];
+            }
+        }
+        return best;
+    }
+
+    private Core longestQueue() {
+        Core best = cores[0];
+        for (int i = 1; i < cores.length; i++) {
+            if (cores[i].readyQueue.size() > best.readyQueue.size()) {
+                best = cores[i];
+            }
+        }
+        return best;
+    }
+
+    // --- Consultas y métricas ---
+
+    public SchedulingPolicy getPolicy() {
+        return policy;
+    }
+
+    /** @return El último tick ejecutado, o -1 si la simulación no ha comenzado. */
+    public int getTime() {
+        return time;
+    }
+
+    public int getCoreCount() {
+        return cores.length;
+    }
+
+    public int getFinishedCount() {
+        return finishedCount;
+    }
+
+    /** @return Cuántos procesos cambiaron de núcleo, por robo de trabajo o por migración. */
+    public long getMigrations() {
+        return migrations;
+    }
+
+    /** @return Cuántos segundos ejecutó procesos un núcleo. */
+    public long getBusyTicks(int core) {
+        return cores[core].busyTicks;
+    }
+
+    /** @return Cuántas veces un núcleo despachó un proceso. */
+    public long getDispatches(int core) {
+        return cores[core].dispatches;
+    }
+
+    /** @return La fracción del tiempo total de la simulación que un núcleo estuvo ocupado, entre 0 y 1. */
+    public double getUtilization(int core) {
+        return time < 0 ? 0 : (double) cores[core].busyTicks / (time + 1);
+    }
+
+    /**
+     * @return El desbalance de carga: cuánto excede el núcleo más ocupado al promedio ({@code max / promedio - 1}).
+     *         0 significa que todos los núcleos trabajaron lo mismo.
+     */
+    public double getLoadImbalance() {
+        long max = 0;
+        long total = 0;
+        for (Core core : cores) {
+            max = Math.max(max, core.busyTicks);
+            total += core.busyTicks;
+        }
+        return total == 0 ? 0 : (double) max * cores.length / total - 1;
+    }
+}
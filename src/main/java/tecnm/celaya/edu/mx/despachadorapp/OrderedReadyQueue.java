@@ -0,0 +1,209 @@
+package tecnm.celaya.edu.mx.despachadorapp;
+
+import java.util.AbstractList;
+import java.util.AbstractQueue;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * La cola de listos de las políticas con orden de despacho (SJF y LJF).
+ * <p>
+ * Es un heap binario sobre un arreglo, así que agregar y despachar cuestan O(log n) sin crear objetos. Junto a
+ * cada proceso se guarda, en un arreglo paralelo, su número de entrada a la cola: entre procesos iguales para la
+ * política (una carga puede repetir pid y duración) se despacha primero el que entró antes. El desempate vive
+ * solo en la cola; los procesos no guardan nada de ella.
+ * <p>
+ * Un heap no se recorre en orden, y la vista y los checkpoints necesitan la cola en orden de despacho. Por eso
+ * {@link #iterator()} y {@link #orderedCopy()} copian los arreglos en O(n) y ordenan la copia con un heapsort que
+ * avanza solo a medida que se lee: los primeros k procesos cuestan O(k log n), y la cola original no se toca.
+ */
+final class OrderedReadyQueue extends AbstractQueue<Process> {
+
+    private static final int INITIAL_CAPACITY = 16;
+
+    private final Comparator<Process> order;
+    private Process[] heap = new Process[INITIAL_CAPACITY];
+    private int[] sequence = new int[INITIAL_CAPACITY];
+    private int size = 0;
+    private int nextSequence = 0;
+
+    OrderedReadyQueue(Comparator<Process> order) {
+        this.order = order;
+    }
+
+    @Override
+    public boolean offer(Process p) {
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+            sequence = Arrays.copyOf(sequence, size * 2);
+        }
+        heap[size] = p;
+        sequence[size] = nextSequence++;
+        siftUp(heap, sequence, order, size++);
+        return true;
+    }
+
+    @Override
+    public Process poll() {
+        if (size == 0) {
+            return null;
+        }
+        Process first = heap[0];
+        removeAt(0);
+        return first;
+    }
+
+    @Override
+    public Process peek() {
+        return size == 0 ? null : heap[0];
+    }
+
+    /**
+     * Recorre el arreglo buscando el proceso, en O(n). Solo lo usa la reproducción de grabaciones cuando un
+     * despacho no coincide con la cabeza de la cola; el motor siempre despacha con {@link #poll()}.
+     */
+    @Override
+    public boolean remove(Object o) {
+        for (int i = 0; i < size; i++) {
+            if (heap[i] == o) {
+                removeAt(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void removeAt(int i) {
+        int last = --size;
+        if (i != last) {
+            heap[i] = heap[last];
+            sequence[i] = sequence[last];
+            heap[last] = null;
+            siftDown(heap, sequence, order, last, i);
+            siftUp(heap, sequence, order, i);
+        } else {
+            heap[last] = null;
+        }
+    }
+
+    @Override
+    public void clear() {
+        Arrays.fill(heap, 0, size, null);
+        size = 0;
+        nextSequence = 0;
+    }
+
+    /** Recorre la cola en orden de despacho, sobre una copia que se ordena a medida que se avanza. */
+    @Override
+    public Iterator<Process> iterator() {
+        return orderedCopy().iterator();
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return Una copia de la cola en orden de despacho. La copia cuesta O(n) y se ordena solo hasta donde se lee,
+     *         así que se puede entregar a otro hilo aunque nadie la recorra completa.
+     */
+    List<Process> orderedCopy() {
+        return new DispatchOrder(Arrays.copyOf(heap, size), Arrays.copyOf(sequence, size), order);
+    }
+
+    /**
+     * Copia de la cola ordenada con un heapsort perezoso: cada lectura más allá de lo ya ordenado saca la cabeza
+     * del heap y la deja al final del arreglo, así que el elemento {@code i} queda en {@code length - 1 - i}.
+     */
+    private static final class DispatchOrder extends AbstractList<Process> implements RandomAccess {
+
+        private final Process[] heap;
+        private final int[] sequence;
+        private final Comparator<Process> order;
+        /** Cuántos elementos quedan en la parte del arreglo que sigue siendo heap. */
+        private int heapSize;
+
+        DispatchOrder(Process[] heap, int[] sequence, Comparator<Process> order) {
+            this.heap = heap;
+            this.sequence = sequence;
+            this.order = order;
+            this.heapSize = heap.length;
+        }
+
+        @Override
+        public synchronized Process get(int index) {
+            if (index < 0 || index >= heap.length) {
+                throw new IndexOutOfBoundsException("Índice " + index + " fuera de la cola de " + heap.length);
+            }
+            while (heap.length - heapSize <= index) {
+                int last = --heapSize;
+                Process first = heap[0];
+                int firstSequence = sequence[0];
+                heap[0] = heap[last];
+                sequence[0] = sequence[last];
+                heap[last] = first;
+                sequence[last] = firstSequence;
+                siftDown(heap, sequence, order, last, 0);
+            }
+            return heap[heap.length - 1 - index];
+        }
+
+        @Override
+        public int size() {
+            return heap.length;
+        }
+    }
+
+    /** Compara por la política y, en empate, por orden de entrada. La resta tolera que la secuencia dé la vuelta. */
+    private static boolean before(Comparator<Process> order, Process a, int aSequence, Process b, int bSequence) {
+        int c = order.compare(a, b);
+        return c != 0 ? c < 0 : aSequence - bSequence < 0;
+    }
+
+    /** Sube el elemento de la posición {@code i} moviendo a sus ancestros hacia abajo, sin intercambios. */
+    private static void siftUp(Process[] heap, int[] sequence, Comparator<Process> order, int i) {
+        Process p = heap[i];
+        int s = sequence[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!before(order, p, s, heap[parent], sequence[parent])) {
+                break;
+            }
+            heap[i] = heap[parent];
+            sequence[i] = sequence[parent];
+            i = parent;
+        }
+        heap[i] = p;
+        sequence[i] = s;
+    }
+
+    /** Baja el elemento de la posición {@code i} moviendo a sus descendientes hacia arriba, sin intercambios. */
+    private static void siftDown(Process[] heap, int[] sequence, Comparator<Process> order, int size, int i) {
+        Process p = heap[i];
+        int s = sequence[i];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            Process c = heap[child];
+            int cs = sequence[child];
+            int right = child + 1;
+            if (right < size && before(order, heap[right], sequence[right], c, cs)) {
+                child = right;
+                c = heap[child];
+                cs = sequence[child];
+            }
+            if (!before(order, c, cs, p, s)) {
+                break;
+            }
+            heap[i] = c;
+            sequence[i] = cs;
+            i = child;
+        }
+        heap[i] = p;
+        sequence[i] = s;
+    }
+}
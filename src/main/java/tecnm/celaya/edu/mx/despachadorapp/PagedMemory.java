@@ -0,0 +1,203 @@
+package tecnm.celaya.edu.mx.despachadorapp;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * La memoria paginada del algoritmo LIFO: un número configurable de marcos de {@code pageSize} KB.
+ * <p>
+ * Los marcos libres se llevan en un mapa de bits (un bit por marco, 64 marcos por palabra), así que encontrar
+ * marcos libres salta palabras completas con {@link Long#numberOfTrailingZeros(long)} en lugar de revisar marco
+ * por marco. Además se guarda la lista de marcos de cada proceso residente, con lo que asignar y liberar cuestan
+ * O(páginas del proceso) y no O(marcos de la memoria).
+ * <p>
+ * Un proceso recibe siempre los marcos libres de menor índice, en orden ascendente, igual que el modelo original
+ * de 8 slots. Al asignar cada marco se guarda qué fragmento del proceso contiene y cuántos KB ocupa, así que la
+ * tabla de paginación se dibuja consultando cada marco directamente.
+ */
+class PagedMemory {
+
+    private final int pageSize;
+    private final int frameCount;
+
+    /** Bit en 1 = marco libre. Los bits sobrantes de la última palabra siempre valen 0. */
+    private final long[] freeBits;
+    private int freeCount;
+
+    /** La palabra más baja que puede tener marcos libres. Todas las anteriores están llenas. */
+    private int firstFreeWord = 0;
+
+    /** El proceso dueño de cada marco, o `null` si está libre. */
+    private final Process[] owners;
+
+    /** El número de fragmento (desde 0) del proceso guardado en cada marco; -1 si está libre. */
+    private final int[] fragments;
+
+    /** Los KB ocupados de cada marco: una página completa salvo el último fragmento de cada proceso. */
+    private final int[] usage;
+
+    /** Los marcos de cada proceso residente, en orden de fragmento. Los arreglos nunca se modifican. */
+    private final Map<Process, int[]> framesByProcess = new IdentityHashMap<>();
+
+    /**
+     * @param frameCount Número de marcos de la memoria.
+     * @param pageSize   Tamaño de cada marco, en KB.
+     */
+    PagedMemory(int frameCount, int pageSize) {
+        if (frameCount < 0 || pageSize < 1) {
+            throw new IllegalArgumentException("La memoria necesita un número de marcos no negativo y páginas de al menos 1 KB");
+        }
+        this.frameCount = frameCount;
+        this.pageSize = pageSize;
+        this.freeBits = new long[(frameCount + 63) >>> 6];
+        this.owners = new Process[frameCount];
+        this.fragments = new int[frameCount];
+        this.usage = new int[frameCount];
+        clear();
+    }
+
+    int getFrameCount() {
+        return frameCount;
+    }
+
+    int getPageSize() {
+        return pageSize;
+    }
+
+    int getFreeCount() {
+        return freeCount;
+    }
+
+    /** @return Cuántos marcos necesita un proceso de {@code size} KB. */
+    int framesNeeded(int size) {
+        return (int) Math.ceil((double) size / pageSize);
+    }
+
+    /**
+     * Asigna al proceso los marcos libres de menor índice que necesite.
+     *
+     * @return `false` si no hay suficientes marcos libres; en ese caso la memoria no cambia.
+     */
+    boolean allocate(Process p) {
+        int needed = framesNeeded(p.getSize());
+        if (needed > freeCount) {
+            return false;
+        }
+        int[] frames = new int[needed];
+        int taken = 0;
+        int word = firstFreeWord;
+        while (taken < needed) {
+            long bits = freeBits[word];
+            while (bits != 0 && taken < needed) {
+                int bit = Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                int frame = (word << 6) | bit;
+                frames[taken] = frame;
+                occupy(frame, p, taken, needed);
+                taken++;
+            }
+            freeBits[word] = bits;
+            if (bits == 0) {
+                word++;
+            }
+        }
+        firstFreeWord = Math.min(word, freeBits.length);
+        freeCount -= needed;
+        framesByProcess.put(p, frames);
+        return true;
+    }
+
+    /** Libera los marcos del proceso. No hace nada si el proceso no está en memoria. */
+    void free(Process p) {
+        int[] frames = framesByProcess.remove(p);
+        if (frames != null) {
+            release(frames);
+        }
+    }
+
+    /**
+     * Coloca un proceso en marcos específicos, que deben estar libres. Se usa al restaurar un checkpoint.
+     */
+    void place(Process p, int[] frames) {
+        for (int i = 0; i < frames.length; i++) {
+            int frame = frames[i];
+            freeBits[frame >>> 6] &= ~(1L << frame);
+            occupy(frame, p, i, frames.length);
+        }
+        freeCount -= frames.length;
+        framesByProcess.put(p, frames);
+        // La palabra más baja con marcos libres pudo llenarse; se recalcula al asignar.
+        while (firstFreeWord < freeBits.length && freeBits[firstFreeWord] == 0) {
+            firstFreeWord++;
+        }
+    }
+
+    /** Libera los marcos de todos los procesos residentes. Cuesta O(páginas ocupadas). */
+    void releaseAll() {
+        for (int[] frames : framesByProcess.values()) {
+            release(frames);
+        }
+        framesByProcess.clear();
+    }
+
+    /** Deja toda la memoria libre. Cuesta O(marcos). */
+    void clear() {
+        Arrays.fill(freeBits, -1L);
+        if ((frameCount & 63) != 0) {
+            freeBits[freeBits.length - 1] = (1L << frameCount) - 1;
+        }
+        Arrays.fill(owners, null);
+        Arrays.fill(fragments, -1);
+        Arrays.fill(usage, 0);
+        freeCount = frameCount;
+        firstFreeWord = 0;
+        framesByProcess.clear();
+    }
+
+    /** @return Los marcos del proceso en orden de fragmento, o `null` si no está en memoria. No se debe modificar. */
+    int[] framesOf(Process p) {
+        return framesByProcess.get(p);
+    }
+
+    /** @return Copia del dueño de cada marco; un marco libre vale `null`. */
+    Process[] snapshotOwners() {
+        return owners.clone();
+    }
+
+    /** @return Copia del número de fragmento guardado en cada marco; un marco libre vale -1. */
+    int[] snapshotFragments() {
+        return fragments.clone();
+    }
+
+    /** @return Copia de los KB ocupados de cada marco; un marco libre vale 0. */
+    int[] snapshotUsage() {
+        return usage.clone();
+    }
+
+    /** Registra el fragmento {@code fragment} (de {@code fragmentCount}) del proceso en un marco. */
+    private void occupy(int frame, Process p, int fragment, int fragmentCount) {
+        owners[frame] = p;
+        fragments[frame] = fragment;
+        if (fragment < fragmentCount - 1) {
+            usage[frame] = pageSize;
+        } else {
+            int remainder = p.getSize() % pageSize;
+            usage[frame] = remainder == 0 ? pageSize : remainder;
+        }
+    }
+
+    private void release(int[] frames) {
+        for (int frame : frames) {
+            int word = frame >>> 6;
+            freeBits[word] |= 1L << frame;
+            owners[frame] = null;
+            fragments[frame] = -1;
+            usage[frame] = 0;
+            if (word < firstFreeWord) {
+                firstFreeWord = word;
+            }
+        }
+        freeCount += frames.length;
+    }
+}
@@ -0,0 +1,125 @@
+package tecnm.celaya.edu.mx.despachadorapp;
+
+import javafx.animation.AnimationTimer;
+
+import java.util.List;
+import java.util.function.IntConsumer;
+
+/**
+ * Reloj de reproducción de las vistas de simulación, con velocidad variable.
+ * <p>
+ * Sustituye al {@code Timeline} con un KeyFrame fijo de 1 segundo. En cada pulso de animación calcula
+ * cuántos ticks corresponden al tiempo real transcurrido según la velocidad elegida (1x = 1 tick por
+ * segundo) y se los pide al controlador de una sola vez, así que a 100x se avanzan varios ticks por frame
+ * y la interfaz solo dibuja el último estado.
+ * <p>
+ * En modo {@link #MAX_SPEED} no hay relación con el tiempo real: el reloj pide un bloque de ticks, espera a
+ * que el controlador avise con {@link #frameRendered()} que ya mostró el resultado y pide el siguiente.
+ * El tamaño del bloque se duplica mientras el motor responde dentro del mismo frame y se reduce a la mitad
+ * cuando tarda más, de modo que la simulación corre tan rápido como el motor lo permite sin congelar la ventana.
+ */
+public class PlaybackClock extends AnimationTimer {
+
+    /** Velocidad especial: tan rápido como sea posible. */
+    public static final double MAX_SPEED = Double.POSITIVE_INFINITY;
+
+    /** Las velocidades que ofrecen las vistas, en el formato que entiende {@link #parseSpeed(String)}. */
+    public static final List<String> SPEED_LABELS =
+            List.of("0.1x", "0.25x", "0.5x", "1x", "2x", "5x", "10x", "100x", "1000x", "Máx");
+
+    /** La etiqueta de la velocidad inicial. */
+    public static final String DEFAULT_SPEED_LABEL = "1x";
+
+    private final IntConsumer advance;
+
+    private double speed = 1;
+    private long lastPulse = 0;
+    private double pendingTicks = 0;
+
+    // Estado del modo de máxima velocidad.
+    private int chunk = 1;
+    private boolean awaitingFrame = false;
+    private int pulsesWaited = 0;
+
+    /**
+     * @param advance Recibe cuántos ticks debe avanzar la simulación. Se llama en el hilo de JavaFX.
+     */
+    public PlaybackClock(IntConsumer advance) {
+        this.advance = advance;
+    }
+
+    /**
+     * Convierte una etiqueta de {@link #SPEED_LABELS} en ticks por segundo.
+     */
+    public static double parseSpeed(String label) {
+        if (label == null || label.equalsIgnoreCase("Máx")) {
+            return MAX_SPEED;
+        }
+        return Double.parseDouble(label.replace("x", ""));
+    }
+
+    /**
+     * @param speed Ticks por segundo de tiempo real, o {@link #MAX_SPEED}.
+     */
+    public void setSpeed(double speed) {
+        this.speed = speed;
+        resetPacing();
+    }
+
+    public double getSpeed() {
+        return speed;
+    }
+
+    @Override
+    public void start() {
+        resetPacing();
+        super.start();
+    }
+
+    /** Avisa que la interfaz ya muestra el resultado del último avance pedido. */
+    public void frameRendered() {
+        awaitingFrame = false;
+    }
+
+    @Override
+    public void handle(long now) {
+        if (speed == MAX_SPEED) {
+            handleMaxSpeed();
+            return;
+        }
+        if (lastPulse == 0) {
+            lastPulse = now;
+            return;
+        }
+        pendingTicks += (now - lastPulse) / 1e9 * speed;
+        lastPulse = now;
+        int ticks = (int) pendingTicks;
+        if (ticks > 0) {
+            pendingTicks -= ticks;
+            advance.accept(ticks);
+        }
+    }
+
+    private void handleMaxSpeed() {
+        if (awaitingFrame) {
+            pulsesWaited++;
+            return;
+        }
+        if (pulsesWaited <= 1) {
+            chunk = (int) Math.min((long) chunk * 2, Integer.MAX_VALUE / 2);
+        } else {
+            chunk = Math.max(1, chunk / 2);
+        }
+        pulsesWaited = 0;
+        awaitingFrame = true;
+        advance.accept(chunk);
+    }
+
+    private void resetPacing() {
+        lastPulse = 0;
+        pendingTicks = 0;
+        chunk = 1;
+        awaitingFrame = false;
+        pulsesWaited = 0;
+    }
+}
@@ -1,7 +1,12 @@
 package tecnm.celaya.edu.mx.despachadorapp;
 
-import javafx.beans.property.SimpleIntegerProperty;
-import javafx.beans.property.SimpleStringProperty;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import javafx.beans.property.ReadOnlyStringProperty;
+import javafx.beans.property.ReadOnlyStringWrapper;
+
+import java.util.ArrayList;
+import java.util.List;
 
 /**
  * Representa un único proceso dentro del simulador.
@@ -9,57 +14,131 @@ import javafx.beans.property.SimpleStringProperty;
  * Esta clase es el modelo de datos fundamental. Contiene toda la información
  * relevante de un proceso, como su PID, tiempo de llegada y duración.
  * <p>
- * <b>IMPORTANTE:</b> Todos los atributos son
- * {@link javafx.beans.property.Property} de JavaFX
- * (ej. {@link SimpleIntegerProperty}). Esto es crucial para que la interfaz de
- * usuario (TableView)
- * se actualice automáticamente cuando los valores de un proceso cambian.
+ * <b>IMPORTANTE:</b> Los atributos se guardan como primitivos y el estado como un
+ * {@link ProcessState}, para que el motor pueda simular millones de procesos sin
+ * cargar con objetos {@link javafx.beans.property.Property} de JavaFX. Las propiedades
+ * (que la TableView necesita para actualizarse sola cuando los valores cambian) se crean
+ * la primera vez que se pide alguna de ellas con los métodos `*Property()`, lo cual solo
+ * ocurre para las filas que la tabla llega a mostrar. A partir de ese momento, los setters
+ * marcan el proceso en {@link PropertyBatcher}, que copia los valores finales a las propiedades
+ * una vez por frame.
+ * <p>
+ * El motor modifica los procesos desde su propio hilo ({@link SimulationWorker}) mientras la
+ * tabla los lee desde el hilo de JavaFX; por eso los campos que cambian durante la simulación
+ * son {@code volatile}.
  */
 public class Process {
 
     /** Identificador único del proceso. */
-    private final SimpleIntegerProperty pid;
+    private final int pid;
 
     /**
      * El segundo exacto en el que el proceso llega al sistema y está listo para ser
      * admitido en la memoria.
      */
-    private final SimpleIntegerProperty arrivalTime;
+    private final int arrivalTime;
 
     /**
      * La cantidad total de segundos de CPU que el proceso necesita para
      * completarse.
      */
-    private final SimpleIntegerProperty duration;
+    private final int duration;
 
-    /**
-     * La ubicación actual del proceso en la simulación (ej. "Memoria", "CPU",
-     * "Salida").
-     */
-    private final SimpleStringProperty location;
-
-    /** El estado actual del proceso (W=Waiting, X=Executing, F=Finished). */
-    private final SimpleStringProperty state;
+    /** El estado actual del proceso. También determina su ubicación. */
+    private volatile ProcessState state = ProcessState.NEW;
 
     /**
      * El tiempo de CPU que aún le falta al proceso para completarse. Se decrementa
      * en cada tick de la CPU.
      */
-    private final SimpleIntegerProperty remainingDuration;
+    private volatile int remainingDuration;
 
     /** El tamaño del proceso en KB. */
-    private final SimpleIntegerProperty size;
+    private volatile int size = 0;
+
+    /** Las propiedades de JavaFX del proceso, o `null` si ninguna vista las ha pedido. */
+    private volatile FxProperties properties;
 
     public Process(int pid, int arrivalTime, int duration) {
-        this.pid = new SimpleIntegerProperty(pid);
-        this.arrivalTime = new SimpleIntegerProperty(arrivalTime);
-        this.duration = new SimpleIntegerProperty(duration);
+        this.pid = pid;
+        this.arrivalTime = arrivalTime;
+        this.duration = duration;
+        this.remainingDuration = duration;
+    }
 
-        // Inicialmente, un proceso no tiene ubicación ni estado hasta que llega.
-        this.location = new SimpleStringProperty("");
-        this.state = new SimpleStringProperty("");
-        this.remainingDuration = new SimpleIntegerProperty(duration);
-        this.size = new SimpleIntegerProperty(0); // Valor por defecto
+    /**
+     * Crea procesos nuevos con los mismos datos de entrada (pid, llegada, duración y tamaño) y en su estado
+     * inicial, para simular una carga sin modificar los procesos originales.
+     */
+    public static List<Process> copyAll(List<Process> workload) {
+        List<Process> copies = new ArrayList<>(workload.size());
+        for (Process template : workload) {
+            Process p = new Process(template.getPid(), template.getArrivalTime(), template.getDuration());
+            p.setSize(template.getSize());
+            copies.add(p);
+        }
+        return copies;
+    }
+
+    /**
+     * Propiedades de JavaFX de un proceso. Se agrupan en un solo objeto para que un proceso
+     * que nunca se muestra solo pague una referencia nula.
+     */
+    private static final class FxProperties {
+        final ReadOnlyIntegerWrapper pid;
+        final ReadOnlyIntegerWrapper arrivalTime;
+        final ReadOnlyIntegerWrapper duration;
+        final ReadOnlyStringWrapper location;
+        final ReadOnlyStringWrapper state;
+        final ReadOnlyIntegerWrapper remainingDuration;
+        final ReadOnlyIntegerWrapper size;
+
+        /** `true` si el proceso ya está en la lista de pendientes de {@link PropertyBatcher}. */
+        volatile boolean dirty;
+
+        FxProperties(Process p) {
+            pid = new ReadOnlyIntegerWrapper(p.pid);
+            arrivalTime = new ReadOnlyIntegerWrapper(p.arrivalTime);
+            duration = new ReadOnlyIntegerWrapper(p.duration);
+            location = new ReadOnlyStringWrapper(p.state.getLocation());
+            state = new ReadOnlyStringWrapper(p.state.getCode());
+            remainingDuration = new ReadOnlyIntegerWrapper(p.remainingDuration);
+            size = new ReadOnlyIntegerWrapper(p.size);
+        }
+    }
+
+    /** Solo se llama desde el hilo de JavaFX. */
+    private FxProperties properties() {
+        FxProperties current = properties;
+        if (current == null) {
+            current = new FxProperties(this);
+            properties = current;
+            // Un cambio hecho por el motor mientras se creaban las propiedades pudo no quedar en ellas.
+            current.dirty = true;
+            PropertyBatcher.markDirty(this);
+        }
+        return current;
+    }
+
+    /** Avisa a {@link PropertyBatcher} que hay valores por publicar, si alguna vista usa las propiedades. */
+    private void changed() {
+        FxProperties current = properties;
+        if (current != null && !current.dirty) {
+            current.dirty = true;
+            PropertyBatcher.markDirty(this);
+        }
+    }
+
+    /** Copia los valores actuales a las propiedades. Lo llama {@link PropertyBatcher} una vez por frame. */
+    void publishProperties() {
+        FxProperties current = properties;
+        // Se limpia antes de leer los valores: un cambio posterior volverá a marcar el proceso.
+        current.dirty = false;
+        ProcessState currentState = state;
+        current.state.set(currentState.getCode());
+        current.location.set(currentState.getLocation());
+        current.remainingDuration.set(remainingDuration);
+        current.size.set(size);
     }
 
     // --- Getters y Setters ---
@@ -67,74 +146,75 @@ public class Process {
     // vincularse a estos atributos.
 
     public int getPid() {
-        return pid.get();
-    }
-
-    public SimpleIntegerProperty pidProperty() {
         return pid;
     }
 
-    public int getArrivalTime() {
-        return arrivalTime.get();
+    public ReadOnlyIntegerProperty pidProperty() {
+        return properties().pid.getReadOnlyProperty();
     }
 
-    public SimpleIntegerProperty arrivalTimeProperty() {
+    public int getArrivalTime() {
         return arrivalTime;
     }
 
-    public int getDuration() {
-        return duration.get();
+    public ReadOnlyIntegerProperty arrivalTimeProperty() {
+        return properties().arrivalTime.getReadOnlyProperty();
     }
 
-    public SimpleIntegerProperty durationProperty() {
+    public int getDuration() {
         return duration;
     }
 
-    public String getLocation() {
-        return location.get();
+    public ReadOnlyIntegerProperty durationProperty() {
+        return properties().duration.getReadOnlyProperty();
     }
 
-    public SimpleStringProperty locationProperty() {
-        return location;
+    /** @return La ubicación actual del proceso (ej. "Memoria", "CPU", "Salida"). */
+    public String getLocation() {
+        return state.getLocation();
     }
 
-    public void setLocation(String location) {
-        this.location.set(location);
+    public ReadOnlyStringProperty locationProperty() {
+        return properties().location.getReadOnlyProperty();
     }
 
-    public String getState() {
-        return state.get();
+    public ProcessState getState() {
+        return state;
     }
 
-    public SimpleStringProperty stateProperty() {
-        return state;
+    /** La columna "Estado" muestra el código de una letra del estado (W, M, X, F). */
+    public ReadOnlyStringProperty stateProperty() {
+        return properties().state.getReadOnlyProperty();
     }
 
-    public void setState(String state) {
-        this.state.set(state);
+    public void setState(ProcessState state) {
+        this.state = state;
+        changed();
     }
 
     public int getRemainingDuration() {
-        return remainingDuration.get();
+        return remainingDuration;
     }
 
-    public SimpleIntegerProperty remainingDurationProperty() {
-        return remainingDuration;
+    public ReadOnlyIntegerProperty remainingDurationProperty() {
+        return properties().remainingDuration.getReadOnlyProperty();
     }
 
     public void setRemainingDuration(int remainingDuration) {
-        this.remainingDuration.set(remainingDuration);
+        this.remainingDuration = remainingDuration;
+        changed();
     }
 
     public int getSize() {
-        return size.get();
+        return size;
     }
 
-    public SimpleIntegerProperty sizeProperty() {
-        return size;
+    public ReadOnlyIntegerProperty sizeProperty() {
+        return properties().size.getReadOnlyProperty();
     }
 
     public void setSize(int size) {
-        this.size.set(size);
+        this.size = size;
+        changed();
     }
 }
@@ -0,0 +1,43 @@
+package tecnm.celaya.edu.mx.despachadorapp;
+
+/**
+ * Estados por los que pasa un {@link Process} durante la simulación.
+ * <p>
+ * Cada estado determina también la ubicación del proceso, así que el modelo solo guarda el estado.
+ * El código de una letra y la ubicación son los textos que muestra la tabla de estados.
+ */
+public enum ProcessState {
+
+    /** Todavía no llega al sistema, o llegó pero no cabe en la memoria paginada. */
+    NEW("", ""),
+
+    /** En la cola de memoria, esperando la CPU. */
+    WAITING("W", "Memoria"),
+
+    /** Admitido en la memoria paginada, esperando la CPU (solo LIFO). */
+    IN_MEMORY("M", "Memoria"),
+
+    /** En ejecución en la CPU. */
+    RUNNING("X", "CPU"),
+
+    /** Terminó su ejecución. */
+    FINISHED("F", "Salida");
+
+    private final String code;
+    private final String location;
+
+    ProcessState(String code, String location) {
+        this.code = code;
+        this.location = location;
+    }
+
+    /** @return El código de una letra que se muestra en la columna "Estado" (vacío para {@link #NEW}). */
+    public String getCode() {
+        return code;
+    }
+
+    /** @return La ubicación que corresponde a este estado (ej. "Memoria", "CPU", "Salida"). */
+    public String getLocation() {
+        return location;
+    }
+}
@@ -0,0 +1,59 @@
+package tecnm.celaya.edu.mx.despachadorapp;
+
+import javafx.application.Platform;
+import javafx.scene.Scene;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Agrupa los cambios de los procesos y los publica en sus propiedades de JavaFX una vez por frame.
+ * <p>
+ * Un tick (o un salto con el slider) puede cambiar el mismo proceso varias veces. En lugar de notificar
+ * a la tabla en cada setter, {@link Process} solo se marca como pendiente aquí, y justo antes del layout
+ * del siguiente pulso se copian los valores finales a sus propiedades. Así la tabla redibuja únicamente
+ * las celdas cuyo valor realmente cambió, sin necesidad de llamar a {@code refresh()}.
+ * <p>
+ * El motor marca procesos desde su propio hilo ({@link SimulationWorker}); la publicación siempre ocurre
+ * en el hilo de JavaFX.
+ */
+final class PropertyBatcher {
+
+    private static final Queue<Process> pending = new ConcurrentLinkedQueue<>();
+    private static final AtomicBoolean pulseRequested = new AtomicBoolean(false);
+
+    private PropertyBatcher() {
+    }
+
+    /**
+     * Registra el batcher en una escena. Debe llamarse para cada ventana que muestre procesos.
+     */
+    static void install(Scene scene) {
+        scene.addPreLayoutPulseListener(PropertyBatcher::flush);
+    }
+
+    /**
+     * Marca un proceso como pendiente de publicar y pide un pulso si no había otro pendiente.
+     * Se puede llamar desde cualquier hilo.
+     */
+    static void markDirty(Process p) {
+        pending.add(p);
+        if (pulseRequested.compareAndSet(false, true)) {
+            if (Platform.isFxApplicationThread()) {
+                Platform.requestNextPulse();
+            } else {
+                Platform.runLater(Platform::requestNextPulse);
+            }
+        }
+    }
+
+    /** Publica en las propiedades los valores actuales de todos los procesos pendientes. */
+    static void flush() {
+        pulseRequested.set(false);
+        Process p;
+        while ((p = pending.poll()) != null) {
+            p.publishProperties();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package tecnm.celaya.edu.mx.despachadorapp;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Graba en un archivo binario todas las transiciones de una corrida de {@link SimulationEngine}, para verla después
+ * con {@link RunReplay} sin volver a ejecutar el planificador.
+ * <p>
+ * El archivo empieza con un encabezado: los 4 bytes {@code RUN1}, el número de eventos (se escribe al cerrar), el
+ * nombre de la política, los marcos y el tamaño de página de la memoria paginada, y la carga de trabajo completa
+ * (pid, llegada, duración y tamaño de cada proceso). Le siguen los eventos en el orden en que ocurrieron, un
+ * registro de {@value #RECORD_BYTES} bytes por evento: tick, índice del proceso en la carga, un argumento y el
+ * tipo. El índice identifica al proceso aunque dos tengan el mismo pid. La asignación y la liberación de memoria
+ * producen un registro por marco, con el marco como argumento.
+ * <p>
+ * Los eventos se escriben directamente en ventanas de {@value #WINDOW_RECORDS} registros mapeadas en memoria con
+ * {@link FileChannel#map}, sin copias intermedias. El número de eventos solo se escribe con {@link #finish()}, que
+ * se llama después de que la corrida terminó bien; una grabación sin terminar (porque la simulación falló o el
+ * programa se detuvo) conserva -1 en el encabezado y {@link RunReplay} la rechaza. Al cerrar se recorta el espacio
+ * sobrante de la última ventana; si el sistema no permite recortar un archivo mapeado, el sobrante queda en ceros y
+ * el lector lo ignora.
+ * <p>
+ * Solo tiene sentido sobre una corrida hacia adelante: si el motor retrocede con {@link SimulationEngine#seek(int)},
+ * los ticks re-ejecutados se vuelven a grabar.
+ */
+public class RunRecorder implements SimulationListener, Closeable {
+
+    /** Los primeros bytes de toda grabación. */
+    static final byte[] MAGIC = {'R', 'U', 'N', '1'};
+
+    /** Bytes por evento: tick, índice del proceso y argumento como enteros de 32 bits, más el tipo. */
+    static final int RECORD_BYTES = 13;
+
+    /** Registros por ventana mapeada. */
+    static final int WINDOW_RECORDS = 1 << 16;
+
+    /** Posición del número de eventos en el encabezado. */
+    static final int EVENT_COUNT_OFFSET = MAGIC.length;
+
+    static final byte ARRIVED = 0;
+    /** Argumento: la duración restante. */
+    static final byte ADMITTED = 1;
+    /** Argumento: la duración restante al entrar a la CPU. */
+    static final byte DISPATCHED = 2;
+    /** Argumento: la duración restante al salir de la CPU. */
+    static final byte PREEMPTED = 3;
+    static final byte FINISHED = 4;
+    /** Argumento: el marco asignado. Los registros de un proceso van en orden de fragmento. */
+    static final byte PAGE_ALLOCATED = 5;
+    /** Argumento: el marco liberado. */
+    static final byte PAGE_FREED = 6;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final Map<Process, Integer> indexOf = new IdentityHashMap<>();
+    private final long eventsStart;
+    private MappedByteBuffer window;
+    private long windowFirst = 0;
+    private long count = 0;
+    private boolean finished = false;
+
+    /**
+     * Crea (o reemplaza) el archivo y escribe el encabezado.
+     *
+     * @param workload Los procesos que se van a simular, los mismos objetos que se cargan en el motor.
+     */
+    public RunRecorder(Path path, SchedulingPolicy policy, List<Process> workload, int memoryFrames, int pageSize)
+            throws IOException {
+        this.path = path;
+        byte[] name = policy.getName().getBytes(StandardCharsets.UTF_8);
+        ByteBuffer header = ByteBuffer.allocate(MAGIC.length + 8 + 2 + name.length + 12 + 16 * workload.size());
+        header.put(MAGIC).putLong(-1).putShort((short) name.length).put(name);
+        header.putInt(memoryFrames).putInt(pageSize).putInt(workload.size());
+        for (Process p : workload) {
+            indexOf.put(p, indexOf.size());
+            header.putInt(p.getPid()).putInt(p.getArrivalTime()).putInt(p.getDuration()).putInt(p.getSize());
+        }
+        header.flip();
+
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+        } catch (IOException e) {
+            channel.close();
+            throw e;
+        }
+        eventsStart = header.limit();
+    }
+
+    /**
+     * Simula una copia de la carga de trabajo hasta el final, con la memoria paginada por defecto, y graba la
+     * corrida. La carga original no se modifica. Si la simulación o la escritura fallan, el archivo se borra.
+     *
+     * @return Cuántos eventos se grabaron.
+     */
+    public static long record(Path path, SchedulingPolicy policy, List<Process> workload) throws IOException {
+        List<Process> copy = Process.copyAll(workload);
+        SimulationEngine engine = new SimulationEngine(policy, SimulationEngine.DEFAULT_CHECKPOINT_INTERVAL, 0);
+        try (RunRecorder recorder = new RunRecorder(path, policy, copy, engine.getMemoryFrames(),
+                engine.getPageSize())) {
+            engine.setListener(recorder);
+            engine.load(copy);
+            engine.runToCompletion();
+            recorder.finish();
+            return recorder.getCount();
+        } catch (IOException | RuntimeException e) {
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException suppressed) {
+                e.addSuppressed(suppressed);
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public void onArrived(Process p, int tick) {
+        append(tick, p, 0, ARRIVED);
+    }
+
+    @Override
+    public void onAdmitted(Process p, int tick) {
+        append(tick, p, p.getRemainingDuration(), ADMITTED);
+    }
+
+    @Override
+    public void onDispatched(Process p, int tick) {
+        append(tick, p, p.getRemainingDuration(), DISPATCHED);
+    }
+
+    @Override
+    public void onPreempted(Process p, int tick) {
+        append(tick, p, p.getRemainingDuration(), PREEMPTED);
+    }
+
+    @Override
+    public void onFinished(Process p, int tick) {
+        append(tick, p, 0, FINISHED);
+    }
+
+    @Override
+    public void onPagesAllocated(Process p, int[] frames, int tick) {
+        for (int frame : frames) {
+            append(tick, p, frame, PAGE_ALLOCATED);
+        }
+    }
+
+    @Override
+    public void onPagesFreed(Process p, int[] frames, int tick) {
+        for (int frame : frames) {
+            append(tick, p, frame, PAGE_FREED);
+        }
+    }
+
+    /** @return Cuántos eventos se han grabado. */
+    public long getCount() {
+        return count;
+    }
+
+    private void append(int tick, Process p, int argument, byte type) {
+        if (finished) {
+            throw new IllegalStateException(path + ": la grabación ya se terminó");
+        }
+        Integer index = indexOf.get(p);
+        if (index == null) {
+            throw new IllegalArgumentException("El proceso " + p.getPid() + " no es de la carga grabada");
+        }
+        if (window == null || count - windowFirst == WINDOW_RECORDS) {
+            mapWindow();
+        }
+        window.putInt(tick).putInt(index).putInt(argument).put(type);
+        count++;
+    }
+
+    /** Mapea la siguiente ventana al final del archivo, lo que también lo hace crecer. */
+    private void mapWindow() {
+        windowFirst = count;
+        try {
+            window = channel.map(FileChannel.MapMode.READ_WRITE, eventsStart + count * RECORD_BYTES,
+                    (long) WINDOW_RECORDS * RECORD_BYTES);
+        } catch (IOException e) {
+            throw new UncheckedIOException(path + ": no se pudo extender la grabación", e);
+        }
+    }
+
+    /**
+     * Marca la grabación como completa: guarda los eventos en disco y escribe su número en el encabezado. Se llama
+     * una sola vez, cuando la corrida terminó; después ya no se aceptan eventos.
+     */
+    public void finish() throws IOException {
+        if (finished) {
+            return;
+        }
+        if (window != null) {
+            window.force();
+        }
+        ByteBuffer countBuffer = ByteBuffer.allocate(8).putLong(0, count);
+        while (countBuffer.hasRemaining()) {
+            channel.write(countBuffer, EVENT_COUNT_OFFSET + countBuffer.position());
+        }
+        channel.force(false);
+        finished = true;
+    }
+
+    /** Cierra el archivo. Si no se llamó a {@link #finish()}, la grabación queda marcada como incompleta. */
+    @Override
+    public void close() throws IOException {
+        try {
+            channel.truncate(eventsStart + count * RECORD_BYTES);
+        } catch (IOException e) {
+            // En algunos sistemas no se puede recortar un archivo con regiones mapeadas; el sobrante se ignora.
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,498 @@
+package tecnm.celaya.edu.mx.despachadorapp;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Reproduce una corrida grabada con {@link RunRecorder}: reconstruye el estado de cualquier tick aplicando los
+ * eventos del archivo, sin volver a ejecutar el planificador.
+ * <p>
+ * Expone lo mismo que {@link SimulationEngine} necesita la interfaz ({@link #seek(int)} y {@link #snapshot()}), y
+ * mantiene el estado y la duración restante de sus propios procesos igual que el motor, así que las tablas de las
+ * vistas la muestran sin cambios. La cola de listos usa la misma disciplina que la política original
+ * ({@link SimulationEngine#newReadyQueue(SchedulingPolicy)}), de modo que se muestra en el mismo orden.
+ * <p>
+ * Los eventos se leen del archivo mapeado en ventanas de {@value RunRecorder#WINDOW_RECORDS} registros. Todas las
+ * ventanas se mapean al abrir y el archivo se cierra de inmediato; las regiones mapeadas siguen siendo válidas.
+ * <p>
+ * Para retroceder, al avanzar se guardan copias del estado, como los checkpoints del motor, y un salto restaura la
+ * copia más cercana. Entre una copia y la siguiente hay al menos {@value #KEYFRAME_INTERVAL} eventos, y al menos
+ * tantos como elementos tiene la copia (procesos listos más marcos de memoria), así que copiar nunca cuesta más
+ * que aplicar los eventos y un salto aplica como máximo un intervalo. Las copias se guardan en orden y nunca se
+ * descartan: cubren toda la grabación.
+ * <p>
+ * No es segura para varios hilos: igual que el motor, solo la usa el hilo de {@link SimulationWorker}.
+ */
+public class RunReplay {
+
+    static final int KEYFRAME_INTERVAL = 1024;
+
+    /** Una copia del estado justo antes de aplicar el evento {@code eventIndex}. */
+    private static final class Keyframe {
+        final long eventIndex;
+        final int finishedCount;
+        final Process cpuProcess;
+        final int dispatchTick;
+        final int remainingAtDispatch;
+        final Process[] ready;
+        final int[] readyRemaining;
+        final Process[] owners;
+        final int[] fragments;
+        final int[] usage;
+        final Process allocating;
+        final int allocatedFragments;
+
+        Keyframe(long eventIndex, int finishedCount, Process cpuProcess, int dispatchTick, int remainingAtDispatch,
+                 Process[] ready, int[] readyRemaining, Process[] owners, int[] fragments, int[] usage,
+                 Process allocating, int allocatedFragments) {
+            this.eventIndex = eventIndex;
+            this.finishedCount = finishedCount;
+            this.cpuProcess = cpuProcess;
+            this.dispatchTick = dispatchTick;
+            this.remainingAtDispatch = remainingAtDispatch;
+            this.ready = ready;
+            this.readyRemaining = readyRemaining;
+            this.owners = owners;
+            this.fragments = fragments;
+            this.usage = usage;
+            this.allocating = allocating;
+            this.allocatedFragments = allocatedFragments;
+        }
+    }
+
+    private final Path path;
+    private final SchedulingPolicy policy;
+    private final List<Process> processes;
+    private final Process[] byIndex;
+    private final int pageSize;
+    private final MappedByteBuffer[] windows;
+    private final long eventCount;
+
+    private final Queue<Process> ready;
+    private final boolean lastInFirstOut;
+    private final boolean pagedMemory;
+    private final Process[] owners;
+    private final int[] fragments;
+    private final int[] usage;
+    /** Las copias del estado, ordenadas por {@link Keyframe#eventIndex}. */
+    private final List<Keyframe> keyframes = new ArrayList<>();
+    /** El evento a partir del cual se guarda la siguiente copia. */
+    private long nextKeyframe = KEYFRAME_INTERVAL;
+
+    /** Registro de finalización, igual que en el motor: no se recorta al retroceder. */
+    private Process[] finishedLog = new Process[16];
+    private int finishedLogSize = 0;
+    private int finishedCount = 0;
+
+    private Process cpuProcess;
+    private int dispatchTick;
+    private int remainingAtDispatch;
+    /** El proceso cuyos marcos se están asignando y cuántos lleva, para numerar sus fragmentos. */
+    private Process allocating;
+    private int allocatedFragments;
+
+    /** El siguiente evento por aplicar. */
+    private long eventIndex = 0;
+    private int time = -1;
+
+    private RunReplay(Path path, SchedulingPolicy policy, List<Process> processes, int memoryFrames, int pageSize,
+                      MappedByteBuffer[] windows, long eventCount) {
+        this.path = path;
+        this.policy = policy;
+        this.processes = Collections.unmodifiableList(processes);
+        this.byIndex = processes.toArray(new Process[0]);
+        this.pageSize = pageSize;
+        this.windows = windows;
+        this.eventCount = eventCount;
+        this.ready = SimulationEngine.newReadyQueue(policy);
+        this.lastInFirstOut = policy.getReadyOrder() == null && policy.isLastInFirstOut();
+        this.pagedMemory = policy.usesPagedMemory();
+        this.owners = new Process[pagedMemory ? memoryFrames : 0];
+        this.fragments = new int[owners.length];
+        this.usage = new int[owners.length];
+        Arrays.fill(fragments, -1);
+    }
+
+    /**
+     * Abre una grabación.
+     *
+     * @param policy La política de la vista que la va a mostrar. Debe ser la misma con la que se grabó.
+     * @throws IllegalArgumentException Si el archivo no es una grabación completa o es de otra política.
+     */
+    public static RunReplay open(Path path, SchedulingPolicy policy) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0,
+                    Math.min(size, Integer.MAX_VALUE));
+            byte[] magic = new byte[RunRecorder.MAGIC.length];
+            if (size < magic.length + 10) {
+                throw new IllegalArgumentException(path + ": no es una grabación");
+            }
+            header.get(magic);
+            if (!Arrays.equals(magic, RunRecorder.MAGIC)) {
+                throw new IllegalArgumentException(path + ": no es una grabación");
+            }
+            long eventCount = header.getLong();
+            if (eventCount < 0) {
+                throw new IllegalArgumentException(path + ": la grabación está incompleta (la corrida no terminó)");
+            }
+            byte[] name = new byte[header.getShort() & 0xFFFF];
+            header.get(name);
+            String recordedPolicy = new String(name, StandardCharsets.UTF_8);
+            if (!recordedPolicy.equals(policy.getName())) {
+                throw new IllegalArgumentException(path + ": la grabación es de " + recordedPolicy + ", no de "
+                        + policy.getName());
+            }
+            int memoryFrames = header.getInt();
+            int pageSize = header.getInt();
+            int processCount = header.getInt();
+            if (memoryFrames < 0 || pageSize < 1 || processCount < 0) {
+                throw new IllegalArgumentException(path + ": el encabezado de la grabación no es válido");
+            }
+            List<Process> processes = new ArrayList<>(processCount);
+            for (int i = 0; i < processCount; i++) {
+                Process p = new Process(header.getInt(), header.getInt(), header.getInt());
+                p.setSize(header.getInt());
+                processes.add(p);
+            }
+
+            long eventsStart = header.position();
+            if (eventsStart + eventCount * RunRecorder.RECORD_BYTES > size) {
+                throw new IllegalArgumentException(path + ": la grabación está truncada");
+            }
+            int windowCount = (int) ((eventCount + RunRecorder.WINDOW_RECORDS - 1) / RunRecorder.WINDOW_RECORDS);
+            MappedByteBuffer[] windows = new MappedByteBuffer[windowCount];
+            for (int w = 0; w < windowCount; w++) {
+                long first = (long) w * RunRecorder.WINDOW_RECORDS;
+                long records = Math.min(RunRecorder.WINDOW_RECORDS, eventCount - first);
+                windows[w] = channel.map(FileChannel.MapMode.READ_ONLY, eventsStart + first * RunRecorder.RECORD_BYTES,
+                        records * RunRecorder.RECORD_BYTES);
+            }
+            return new RunReplay(path, policy, processes, memoryFrames, pageSize, windows, eventCount);
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException(path + ": el encabezado de la grabación está truncado");
+        }
+    }
+
+    /** @return Los procesos de la carga grabada. Sus estados cambian conforme avanza la reproducción. */
+    public List<Process> getProcesses() {
+        return processes;
+    }
+
+    public SchedulingPolicy getPolicy() {
+        return policy;
+    }
+
+    /** @return Los marcos de la memoria paginada con que se grabó la corrida; 0 si la política no la usa. */
+    public int getMemoryFrames() {
+        return owners.length;
+    }
+
+    /** @return El tamaño de página, en KB, con que se grabó la corrida. */
+    public int getPageSize() {
+        return pageSize;
+    }
+
+    public long getEventCount() {
+        return eventCount;
+    }
+
+    /** @return El tick del último evento, en el que termina la corrida grabada; 0 si no hay eventos. */
+    public int getEndTick() {
+        return eventCount == 0 ? 0 : tickAt(eventCount - 1);
+    }
+
+    /** @return El último tick mostrado, o -1 al inicio. */
+    public int getTime() {
+        return time;
+    }
+
+    /**
+     * Arma el historial de ocupación de la CPU de toda la grabación. Solo lee los eventos, sin tocar el estado de
+     * la reproducción, así que se puede llamar desde otro hilo mientras la vista la muestra.
+     */
+    public GanttTimeline toTimeline() {
+        GanttTimeline.Builder builder = new GanttTimeline.Builder();
+        for (long index = 0; index < eventCount; index++) {
+            ByteBuffer window = windows[(int) (index / RunRecorder.WINDOW_RECORDS)];
+            int offset = (int) (index % RunRecorder.WINDOW_RECORDS) * RunRecorder.RECORD_BYTES;
+            byte type = window.get(offset + 12);
+            if (type != RunRecorder.DISPATCHED && type != RunRecorder.PREEMPTED && type != RunRecorder.FINISHED) {
+                continue;
+            }
+            int tick = window.getInt(offset);
+            int processIndex = window.getInt(offset + 4);
+            if (processIndex < 0 || processIndex >= byIndex.length) {
+                throw new IllegalArgumentException(path + ": el evento " + index + " es de un proceso inexistente");
+            }
+            Process p = byIndex[processIndex];
+            if (type == RunRecorder.DISPATCHED) {
+                builder.onDispatched(p, tick);
+            } else if (type == RunRecorder.PREEMPTED) {
+                builder.onPreempted(p, tick);
+            } else {
+                builder.onFinished(p, tick);
+            }
+        }
+        return builder.build();
+    }
+
+    /**
+     * Coloca la reproducción en el tick indicado, hacia adelante o hacia atrás.
+     *
+     * @param tick El tick destino. Con -1 se obtiene el estado inicial.
+     */
+    public void seek(int tick) {
+        long target = firstEventAfter(tick);
+        if (target < eventIndex) {
+            Keyframe keyframe = floorKeyframe(target, -1);
+            if (keyframe != null) {
+                restore(keyframe);
+            } else {
+                reset();
+            }
+        } else {
+            Keyframe keyframe = floorKeyframe(target, eventIndex);
+            if (keyframe != null) {
+                restore(keyframe);
+            }
+        }
+        while (eventIndex < target) {
+            if (eventIndex >= nextKeyframe) {
+                storeKeyframe();
+            }
+            apply(eventIndex++);
+        }
+        time = tick;
+        if (cpuProcess != null) {
+            cpuProcess.setRemainingDuration(remainingAtDispatch - (time - dispatchTick + 1));
+        }
+    }
+
+    /** @return Una copia inmutable del estado actual, igual a la que publicaría el motor. */
+    public SimulationSnapshot snapshot() {
+        return new SimulationSnapshot(time, cpuProcess, cpuProcess != null ? time - dispatchTick + 1 : 0,
+                SimulationEngine.readyCopy(ready),
+                finishedLog, finishedCount, owners.clone(), fragments.clone(), usage.clone(), pageSize,
+                finishedCount == byIndex.length);
+    }
+
+    /** Aplica un evento al estado actual. */
+    private void apply(long index) {
+        ByteBuffer window = windows[(int) (index / RunRecorder.WINDOW_RECORDS)];
+        int offset = (int) (index % RunRecorder.WINDOW_RECORDS) * RunRecorder.RECORD_BYTES;
+        int tick = window.getInt(offset);
+        int processIndex = window.getInt(offset + 4);
+        int argument = window.getInt(offset + 8);
+        byte type = window.get(offset + 12);
+        if (processIndex < 0 || processIndex >= byIndex.length) {
+            throw new IllegalArgumentException(path + ": el evento " + index + " es de un proceso inexistente");
+        }
+        Process p = byIndex[processIndex];
+        switch (type) {
+            case RunRecorder.ARRIVED:
+                break; // Sigue en estado NEW hasta ser admitido, igual que en el motor.
+            case RunRecorder.ADMITTED:
+                p.setRemainingDuration(argument);
+                p.setState(pagedMemory ? ProcessState.IN_MEMORY : ProcessState.WAITING);
+                ready.add(p);
+                break;
+            case RunRecorder.DISPATCHED:
+                // La cabeza de la cola es el proceso despachado; solo con pids repetidos podría no serlo.
+                if (ready.peek() == p) {
+                    ready.remove();
+                } else if (!ready.remove(p)) {
+                    throw new IllegalArgumentException(path + ": el proceso " + p.getPid()
+                            + " se despachó sin estar en la cola de listos (evento " + index + ")");
+                }
+                p.setState(ProcessState.RUNNING);
+                cpuProcess = p;
+                dispatchTick = tick;
+                remainingAtDispatch = argument;
+                break;
+            case RunRecorder.PREEMPTED:
+                p.setRemainingDuration(argument);
+                p.setState(ProcessState.WAITING);
+                ready.add(p);
+                cpuProcess = null;
+                break;
+            case RunRecorder.FINISHED:
+                p.setState(ProcessState.FINISHED);
+                p.setRemainingDuration(0);
+                if (finishedCount == finishedLogSize) {
+                    if (finishedLogSize == finishedLog.length) {
+                        finishedLog = Arrays.copyOf(finishedLog, finishedLogSize * 2);
+                    }
+                    finishedLog[finishedLogSize++] = p;
+                }
+                finishedCount++;
+                cpuProcess = null;
+                break;
+            case RunRecorder.PAGE_ALLOCATED:
+                if (allocating != p) {
+                    allocating = p;
+                    allocatedFragments = 0;
+                }
+                occupy(frameOf(argument, index), p, allocatedFragments++);
+                break;
+            case RunRecorder.PAGE_FREED:
+                int frame = frameOf(argument, index);
+                owners[frame] = null;
+                fragments[frame] = -1;
+                usage[frame] = 0;
+                allocating = null;
+                break;
+            default:
+                throw new IllegalArgumentException(path + ": tipo de evento desconocido " + type + " (evento " + index + ")");
+        }
+    }
+
+    /** Registra un fragmento en un marco; el último fragmento de cada proceso ocupa solo el residuo. */
+    private void occupy(int frame, Process p, int fragment) {
+        owners[frame] = p;
+        fragments[frame] = fragment;
+        int fragmentCount = (int) Math.ceil((double) p.getSize() / pageSize);
+        int remainder = p.getSize() % pageSize;
+        usage[frame] = fragment < fragmentCount - 1 || remainder == 0 ? pageSize : remainder;
+    }
+
+    private int frameOf(int frame, long index) {
+        if (frame < 0 || frame >= owners.length) {
+            throw new IllegalArgumentException(path + ": el marco " + frame + " no existe (evento " + index + ")");
+        }
+        return frame;
+    }
+
+    /** @return El índice del primer evento con tick mayor a {@code tick}, por búsqueda binaria. */
+    private long firstEventAfter(int tick) {
+        long low = 0;
+        long high = eventCount;
+        while (low < high) {
+            long mid = (low + high) >>> 1;
+            if (tickAt(mid) <= tick) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int tickAt(long index) {
+        return windows[(int) (index / RunRecorder.WINDOW_RECORDS)]
+                .getInt((int) (index % RunRecorder.WINDOW_RECORDS) * RunRecorder.RECORD_BYTES);
+    }
+
+    // --- Copias del estado ---
+
+    private void storeKeyframe() {
+        Process[] readyArray = ready.toArray(new Process[0]);
+        int[] readyRemaining = new int[readyArray.length];
+        for (int i = 0; i < readyArray.length; i++) {
+            readyRemaining[i] = readyArray[i].getRemainingDuration();
+        }
+        keyframes.add(new Keyframe(eventIndex, finishedCount, cpuProcess, dispatchTick, remainingAtDispatch,
+                readyArray, readyRemaining, owners.clone(), fragments.clone(), usage.clone(), allocating,
+                allocatedFragments));
+        nextKeyframe = eventIndex + Math.max(KEYFRAME_INTERVAL, readyArray.length + owners.length);
+    }
+
+    /**
+     * Busca por búsqueda binaria la copia más reciente con índice menor o igual a {@code index} y estrictamente
+     * mayor que {@code after}, como {@link CheckpointBuffer#floor(int, int)}.
+     *
+     * @return La copia, o `null` si no hay ninguna que valga la pena restaurar.
+     */
+    private Keyframe floorKeyframe(long index, long after) {
+        int low = 0;
+        int high = keyframes.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (keyframes.get(mid).eventIndex <= index) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        if (low == 0) {
+            return null;
+        }
+        Keyframe keyframe = keyframes.get(low - 1);
+        return keyframe.eventIndex > after ? keyframe : null;
+    }
+
+    /** Regresa todos los procesos y la memoria al estado anterior al primer evento. */
+    private void reset() {
+        for (Process p : byIndex) {
+            resetProcess(p);
+        }
+        ready.clear();
+        Arrays.fill(owners, null);
+        Arrays.fill(fragments, -1);
+        Arrays.fill(usage, 0);
+        finishedCount = 0;
+        cpuProcess = null;
+        allocating = null;
+        eventIndex = 0;
+    }
+
+    /**
+     * Coloca la reproducción en el estado de una copia. Como en {@link SimulationEngine}, solo se tocan los procesos
+     * activos de ambos lados y los que finalizaron entre uno y otro.
+     */
+    private void restore(Keyframe keyframe) {
+        for (Process p : ready) {
+            resetProcess(p);
+        }
+        if (cpuProcess != null) {
+            resetProcess(cpuProcess);
+        }
+        for (int i = keyframe.finishedCount; i < finishedCount; i++) {
+            resetProcess(finishedLog[i]);
+        }
+        for (int i = finishedCount; i < keyframe.finishedCount; i++) {
+            finishedLog[i].setState(ProcessState.FINISHED);
+            finishedLog[i].setRemainingDuration(0);
+        }
+        finishedCount = keyframe.finishedCount;
+
+        ready.clear();
+        int readyCount = keyframe.ready.length;
+        for (int k = 0; k < readyCount; k++) {
+            // La copia guarda la cola en orden de despacho; una pila se reconstruye desde el fondo.
+            int i = lastInFirstOut ? readyCount - 1 - k : k;
+            Process p = keyframe.ready[i];
+            p.setRemainingDuration(keyframe.readyRemaining[i]);
+            p.setState(pagedMemory ? ProcessState.IN_MEMORY : ProcessState.WAITING);
+            ready.add(p);
+        }
+        System.arraycopy(keyframe.owners, 0, owners, 0, owners.length);
+        System.arraycopy(keyframe.fragments, 0, fragments, 0, fragments.length);
+        System.arraycopy(keyframe.usage, 0, usage, 0, usage.length);
+        cpuProcess = keyframe.cpuProcess;
+        dispatchTick = keyframe.dispatchTick;
+        remainingAtDispatch = keyframe.remainingAtDispatch;
+        if (cpuProcess != null) {
+            cpuProcess.setState(ProcessState.RUNNING);
+        }
+        allocating = keyframe.allocating;
+        allocatedFragments = keyframe.allocatedFragments;
+        eventIndex = keyframe.eventIndex;
+    }
+
+    private static void resetProcess(Process p) {
+        p.setState(ProcessState.NEW);
+        p.setRemainingDuration(p.getDuration());
+    }
+}
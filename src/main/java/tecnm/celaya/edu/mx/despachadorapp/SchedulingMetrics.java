@@ -0,0 +1,131 @@
+package tecnm.celaya.edu.mx.despachadorapp;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Métricas de planificación calculadas conforme el motor avanza, sin recorrer los procesos al final.
+ * <p>
+ * Se registra como {@link SimulationListener} de {@link SimulationEngine} o de {@link MultiCoreEngine}. Con cada
+ * proceso que finaliza se registran en un {@link LogHistogram}:
+ * <ul>
+ *     <li>el tiempo de retorno (de la llegada al final del tick en que termina),</li>
+ *     <li>el tiempo de espera (el retorno menos la duración), y</li>
+ *     <li>el tiempo de respuesta (de la llegada al primer despacho).</li>
+ * </ul>
+ * Además cuenta despachos, expulsiones y el tiempo de CPU ocupada, de donde salen el throughput y la utilización.
+ * Solo guarda en memoria el primer despacho de los procesos que siguen activos, así que el costo no crece con el
+ * número de procesos ya finalizados.
+ * <p>
+ * Los valores son los de una corrida hacia adelante: si el motor retrocede con {@code seek}, los eventos
+ * repetidos se contarían dos veces. Por eso se usan en las corridas por lotes y no en las vistas.
+ */
+public class SchedulingMetrics implements SimulationListener {
+
+    private final Map<Process, Integer> startTicks = new IdentityHashMap<>();
+    private final LogHistogram turnaround = new LogHistogram();
+    private final LogHistogram waiting = new LogHistogram();
+    private final LogHistogram response = new LogHistogram();
+
+    private long dispatches;
+    private long preemptions;
+    private long busyTicks;
+    private long elapsedTicks;
+
+    @Override
+    public void onDispatched(Process p, int tick) {
+        startTicks.putIfAbsent(p, tick);
+        dispatches++;
+    }
+
+    @Override
+    public void onPreempted(Process p, int tick) {
+        preemptions++;
+    }
+
+    @Override
+    public void onFinished(Process p, int tick) {
+        int start = startTicks.remove(p);
+        int completion = tick + 1; // El proceso termina al final del tick.
+        int turnaroundTime = completion - p.getArrivalTime();
+        turnaround.record(turnaroundTime);
+        waiting.record(turnaroundTime - p.getDuration());
+        response.record(start - p.getArrivalTime());
+        busyTicks += Math.max(p.getDuration(), 1); // Un proceso de duración 0 ocupa la CPU un tick.
+        elapsedTicks = Math.max(elapsedTicks, completion);
+        processFinished(p, start, completion);
+    }
+
+    /**
+     * Se llama después de registrar cada proceso finalizado, para quien necesite también los valores individuales.
+     *
+     * @param start      El tick de su primer despacho.
+     * @param completion El tick al final del cual terminó, más uno.
+     */
+    protected void processFinished(Process p, int start, int completion) {
+    }
+
+    /**
+     * Suma a estas métricas las de otra corrida. Los histogramas y contadores se combinan, y el tiempo
+     * simulado se suma, así que el throughput combinado es el total de procesos entre el tiempo total.
+     */
+    public void add(SchedulingMetrics other) {
+        turnaround.add(other.turnaround);
+        waiting.add(other.waiting);
+        response.add(other.response);
+        dispatches += other.dispatches;
+        preemptions += other.preemptions;
+        busyTicks += other.busyTicks;
+        elapsedTicks += other.elapsedTicks;
+    }
+
+    /** @return Los tiempos de retorno de los procesos finalizados. */
+    public LogHistogram getTurnaround() {
+        return turnaround;
+    }
+
+    /** @return Los tiempos de espera de los procesos finalizados. */
+    public LogHistogram getWaiting() {
+        return waiting;
+    }
+
+    /** @return Los tiempos de respuesta de los procesos finalizados. */
+    public LogHistogram getResponse() {
+        return response;
+    }
+
+    public long getFinishedCount() {
+        return turnaround.getCount();
+    }
+
+    public long getDispatches() {
+        return dispatches;
+    }
+
+    public long getPreemptions() {
+        return preemptions;
+    }
+
+    /** @return Los segundos de CPU que ocuparon los procesos finalizados. */
+    public long getBusyTicks() {
+        return busyTicks;
+    }
+
+    /** @return Los segundos simulados hasta la última finalización. */
+    public long getElapsedTicks() {
+        return elapsedTicks;
+    }
+
+    /** @return Procesos finalizados por segundo simulado. */
+    public double getThroughput() {
+        return elapsedTicks == 0 ? 0 : (double) getFinishedCount() / elapsedTicks;
+    }
+
+    /**
+     * @param cores El número de CPUs de la simulación.
+     * @return La fracción del tiempo simulado que las CPUs estuvieron ocupadas, entre 0 y 1.
+     */
+    public double getUtilization(int cores) {
+        return elapsedTicks == 0 ? 0 : (double) busyTicks / ((double) elapsedTicks * cores);
+    }
+}
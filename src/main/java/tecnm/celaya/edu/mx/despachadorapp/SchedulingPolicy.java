@@ -0,0 +1,87 @@
+package tecnm.celaya.edu.mx.despachadorapp;
+
+import java.util.Comparator;
+
+/**
+ * Describe un algoritmo de planificación para {@link SimulationEngine}.
+ * <p>
+ * Una política no ejecuta la simulación: solo declara cómo se comporta la cola de listos y qué reglas
+ * adicionales aplican. El motor elige con esa descripción la estructura de datos adecuada (una cola o una
+ * pila sobre un {@link java.util.ArrayDeque}, o un heap binario si la política define un orden), así que
+ * cualquier optimización del motor aplica a todas las políticas por igual.
+ * <p>
+ * Los algoritmos de la aplicación están en {@link Algorithm}. Para agregar uno nuevo basta con implementar
+ * esta interfaz (o agregar una constante a {@link Algorithm}) y pasarla al motor; ver
+ * {@link BaseController} para la vista.
+ */
+public interface SchedulingPolicy {
+
+    /** @return Un nombre corto para mostrar y para nombrar el hilo de simulación. */
+    String getName();
+
+    /**
+     * @return El orden de despacho de la cola de listos: el menor según el comparador se despacha primero.
+     *         Con `null` se despacha según el orden de entrada a la cola (ver {@link #isLastInFirstOut()}).
+     */
+    default Comparator<Process> getReadyOrder() {
+        return null;
+    }
+
+    /**
+     * @return `true` si, sin {@link #getReadyOrder()}, se despacha el último proceso en entrar a la cola (pila)
+     *         en lugar del primero. Un proceso expulsado por quantum vuelve a entrar a la cola.
+     */
+    default boolean isLastInFirstOut() {
+        return false;
+    }
+
+    /** @return Los segundos que un proceso puede estar en la CPU antes de ser expulsado; 0 si nunca se expulsa. */
+    default int getQuantum() {
+        return 0;
+    }
+
+    /**
+     * @return `true` si un proceso necesita lugar en la memoria paginada para entrar a la cola de listos.
+     *         Los procesos que no caben esperan en orden de llegada y liberan su memoria al pasar a la CPU.
+     */
+    default boolean usesPagedMemory() {
+        return false;
+    }
+
+    /**
+     * @return La misma política con otro quantum; con 0 nunca expulsa. Sirve para comparar quantums sin
+     *         declarar una política por cada valor (ver {@link SweepApplication}).
+     */
+    default SchedulingPolicy withQuantum(int quantum) {
+        if (quantum < 0) {
+            throw new IllegalArgumentException("El quantum no puede ser negativo: " + quantum);
+        }
+        SchedulingPolicy base = this;
+        return new SchedulingPolicy() {
+            @Override
+            public String getName() {
+                return base.getName() + "/q" + quantum;
+            }
+
+            @Override
+            public Comparator<Process> getReadyOrder() {
+                return base.getReadyOrder();
+            }
+
+            @Override
+            public boolean isLastInFirstOut() {
+                return base.isLastInFirstOut();
+            }
+
+            @Override
+            public int getQuantum() {
+                return quantum;
+            }
+
+            @Override
+            public boolean usesPagedMemory() {
+                return base.usesPagedMemory();
+            }
+        };
+    }
+}
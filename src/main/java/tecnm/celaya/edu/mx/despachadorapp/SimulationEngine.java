@@ -0,0 +1,751 @@
+package tecnm.celaya.edu.mx.despachadorapp;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+
+/**
+ * Motor de simulación incremental compartido por todos los controladores de algoritmos.
+ * <p>
+ * Sustituye a la antigua arquitectura de "re-simulación", en la que cada tick recalculaba todo
+ * desde el segundo 0. El motor conserva su estado entre llamadas y es de eventos discretos: una
+ * {@link EventQueue} guarda los ticks en los que algo ocurre (llegadas, fin de quantum, despachos y
+ * finalizaciones) y el tiempo salta directamente de un evento al siguiente. Entre eventos la CPU solo
+ * descuenta tiempo al proceso en ejecución, así que su duración restante se calcula al vuelo a partir
+ * del tick en que fue despachado. El costo de avanzar depende del número de eventos, no del tiempo simulado.
+ * <p>
+ * Retroceder o saltar en el tiempo es un mecanismo aparte ({@link #seek(int)}): cada
+ * {@link #DEFAULT_CHECKPOINT_INTERVAL} ticks el motor guarda un checkpoint compacto en un
+ * {@link CheckpointBuffer}, y un salto restaura el checkpoint más cercano y vuelve a ejecutar como
+ * máximo ese número de ticks. Con muchos procesos activos a la vez los checkpoints se espacian más, para
+ * que copiarlos no cueste más que re-ejecutar, y el buffer no pasa de {@link #DEFAULT_CHECKPOINT_BYTES}.
+ */
+public class SimulationEngine {
+
+    /** El quantum de tiempo de Round Robin, en segundos. */
+    public static final int QUANTUM = 3;
+
+    /** Número de slots (marcos) por defecto de la memoria paginada del algoritmo LIFO. */
+    public static final int MEMORY_SLOTS = 8;
+
+    /** Tamaño por defecto de cada página de memoria, en KB. */
+    public static final int PAGE_SIZE = 256;
+
+    /**
+     * Cada cuántos ticks se guarda un checkpoint. Es el máximo de ticks que se re-ejecutan en un salto mientras
+     * haya pocos procesos activos; con más de {@value CheckpointBuffer#SMALL_CHECKPOINT}, un checkpoint espera a
+     * que se hayan ejecutado tantos ticks con eventos como procesos tiene que copiar.
+     */
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 64;
+
+    /** Número de checkpoints que se conservan. Con los valores por defecto cubren más de 10⁶ ticks. */
+    public static final int DEFAULT_CHECKPOINT_CAPACITY = 16384;
+
+    /** Memoria aproximada máxima de los checkpoints; al pasarla se descartan los más antiguos. */
+    public static final long DEFAULT_CHECKPOINT_BYTES = 64L << 20;
+
+    /** Cuántas llegadas de una traza en streaming se leen por adelantado. */
+    static final int STREAM_WINDOW = 4096;
+
+    /** El algoritmo de planificación. Sus reglas se copian a los campos siguientes al construir el motor. */
+    private final SchedulingPolicy policy;
+    private final int quantum;
+    private final boolean pagedMemory;
+    private final boolean lastInFirstOut;
+
+    /** La lista de procesos a simular, en el orden en que fueron generados. */
+    private List<Process> processes = Collections.emptyList();
+
+    /**
+     * Índice de llegadas: los procesos ordenados por tiempo de llegada (los empates conservan el orden de la
+     * lista). Los procesos que llegan en un tick se toman avanzando {@link #arrivalCursor}, sin recorrer la lista.
+     */
+    private Process[] arrivalOrder = new Process[0];
+
+    /** Posición en {@link #arrivalOrder} del siguiente proceso por llegar. */
+    private int arrivalCursor = 0;
+
+    /** Número de posiciones válidas de {@link #arrivalOrder}. */
+    private int arrivalCount = 0;
+
+    /**
+     * Con una traza en streaming ({@link #loadStream(Iterator)}), la fuente de la que se rellena
+     * {@link #arrivalOrder}, que entonces es una ventana de {@value #STREAM_WINDOW} llegadas. Es `null` cuando
+     * se cargó una lista con {@link #load(List)}.
+     */
+    private Iterator<Process> arrivalSource;
+    private int streamedCount = 0;
+    private int lastStreamedArrival;
+
+    /**
+     * La cola de procesos listos en memoria. Su disciplina depende de la política: un {@link ArrayDeque} usado
+     * como cola (FIFO) o como pila (LIFO y Round Robin), o un heap binario ordenado por {@link #readyOrder} (SJF y LJF,
+     * {@link OrderedReadyQueue}), de modo que cada despacho cuesta O(log n) en lugar de reordenar la cola completa.
+     * En todos los casos {@code add} pone un proceso en la cola, {@code remove} saca el siguiente a despachar y
+     * recorrerla da los procesos en orden de despacho.
+     */
+    private final Queue<Process> memoryQueue;
+
+    /** El orden de despacho de la cola de memoria, si la política lo define; `null` en los demás casos. */
+    private final Comparator<Process> readyOrder;
+
+    /** Procesos que ya llegaron pero todavía no caben en la memoria paginada (solo LIFO), en orden de llegada. */
+    private final AdmissionQueue pendingAdmission = new AdmissionQueue();
+
+    /**
+     * Registro de finalización: todos los procesos que han finalizado en esta corrida, en orden.
+     * Como la simulación es determinista, el registro no se recorta al retroceder; solo los primeros
+     * {@link #finishedCount} elementos corresponden al tick actual.
+     * <p>
+     * Es un arreglo en el que nunca se sobrescribe una posición ya escrita (al crecer se copia a uno nuevo),
+     * así que un {@link SimulationSnapshot} puede compartirlo con otro hilo sin copiarlo.
+     */
+    private Process[] finishedLog = new Process[16];
+    private int finishedLogSize = 0;
+    private int finishedCount = 0;
+
+    private final CheckpointBuffer checkpoints;
+
+    /** Ticks con eventos ejecutados desde el último checkpoint guardado o restaurado. */
+    private long ticksSinceCheckpoint = 0;
+    private final EventQueue events = new EventQueue();
+
+    /** La memoria paginada (solo LIFO): qué marcos están libres y cuáles ocupa cada proceso. */
+    private final PagedMemory memory;
+
+    /** Observador de las transiciones de estado. Por defecto no hace nada. */
+    private SimulationListener listener = new SimulationListener() { };
+
+    private Process cpuProcess = null;
+
+    /** El tick en que {@link #cpuProcess} entró a la CPU. */
+    private int dispatchTick = 0;
+
+    /** La duración restante de {@link #cpuProcess} al momento de entrar a la CPU. */
+    private int remainingAtDispatch = 0;
+
+    /** El último tick ejecutado. Vale -1 mientras no se haya ejecutado ninguno. */
+    private int time = -1;
+
+    public SimulationEngine(SchedulingPolicy policy) {
+        this(policy, DEFAULT_CHECKPOINT_INTERVAL, DEFAULT_CHECKPOINT_CAPACITY);
+    }
+
+    /**
+     * @param checkpointInterval Cada cuántos ticks se guarda un checkpoint.
+     * @param checkpointCapacity Cuántos checkpoints se conservan en el buffer circular. Con 0 no se guardan
+     *                           checkpoints, lo cual conviene en corridas por lotes que nunca retroceden.
+     */
+    public SimulationEngine(SchedulingPolicy policy, int checkpointInterval, int checkpointCapacity) {
+        this(policy, checkpointInterval, checkpointCapacity, MEMORY_SLOTS, PAGE_SIZE);
+    }
+
+    /**
+     * @param memoryFrames Número de marcos de la memoria paginada, si la política la usa.
+     * @param pageSize     Tamaño de cada marco, en KB.
+     */
+    public SimulationEngine(SchedulingPolicy policy, int checkpointInterval, int checkpointCapacity,
+                            int memoryFrames, int pageSize) {
+        this(policy, checkpointInterval, checkpointCapacity, memoryFrames, pageSize, DEFAULT_CHECKPOINT_BYTES);
+    }
+
+    /** @param checkpointBytes Memoria aproximada máxima de los checkpoints. */
+    SimulationEngine(SchedulingPolicy policy, int checkpointInterval, int checkpointCapacity, int memoryFrames,
+                     int pageSize, long checkpointBytes) {
+        this.policy = policy;
+        this.quantum = policy.getQuantum();
+        this.pagedMemory = policy.usesPagedMemory();
+        this.readyOrder = policy.getReadyOrder();
+        this.lastInFirstOut = readyOrder == null && policy.isLastInFirstOut();
+        this.memoryQueue = newReadyQueue(policy);
+        this.checkpoints = new CheckpointBuffer(checkpointInterval, checkpointCapacity, checkpointBytes);
+        this.memory = new PagedMemory(pagedMemory ? memoryFrames : 0, pageSize);
+    }
+
+    /**
+     * Carga una nueva lista de procesos y deja el motor en su estado inicial.
+     *
+     * @param processes Los procesos a simular, ordenados por tiempo de llegada.
+     */
+    public void load(List<Process> processes) {
+        this.processes = processes;
+        arrivalSource = null;
+        arrivalOrder = processes.toArray(new Process[0]);
+        arrivalCount = arrivalOrder.length;
+        Arrays.sort(arrivalOrder, Comparator.comparingInt(Process::getArrivalTime));
+        finishedLog = new Process[16];
+        finishedLogSize = 0;
+        checkpoints.clear();
+        reset();
+    }
+
+    /**
+     * Carga una traza que se lee conforme avanza la simulación, en lugar de una lista completa. Solo se guardan
+     * en memoria una ventana de {@value #STREAM_WINDOW} llegadas y los procesos que siguen activos; los
+     * finalizados no se registran, así que la memoria no depende del largo de la traza.
+     * <p>
+     * Es para corridas por lotes con {@link #runToCompletion()}: la traza no se puede reiniciar ni retroceder,
+     * {@link #getFinishedProcesses()} queda vacía y {@link #getEndTickBound()} vale 0. Las métricas se obtienen
+     * con un {@link SimulationListener}, como {@link SchedulingMetrics}.
+     *
+     * @param source Los procesos en orden de llegada no decreciente, por ejemplo un {@link TraceReader}.
+     * @throws IllegalStateException Si el motor guarda checkpoints.
+     */
+    public void loadStream(Iterator<Process> source) {
+        if (checkpoints.isEnabled()) {
+            throw new IllegalStateException("Una traza en streaming necesita un motor sin checkpoints");
+        }
+        processes = Collections.emptyList();
+        arrivalSource = source;
+        arrivalOrder = new Process[STREAM_WINDOW];
+        streamedCount = 0;
+        lastStreamedArrival = Integer.MIN_VALUE;
+        finishedLog = new Process[16];
+        finishedLogSize = 0;
+        refillArrivals();
+        resetState();
+    }
+
+    /**
+     * Regresa el motor y todos los procesos al estado anterior al tick 0.
+     * Los checkpoints de la corrida se conservan, porque siguen siendo válidos.
+     *
+     * @throws IllegalStateException Si se cargó una traza en streaming, que no se puede volver a leer.
+     */
+    public void reset() {
+        if (arrivalSource != null) {
+            throw new IllegalStateException("Una traza en streaming no se puede reiniciar");
+        }
+        resetState();
+    }
+
+    private void resetState() {
+        time = -1;
+        cpuProcess = null;
+        memoryQueue.clear();
+        pendingAdmission.clear();
+        finishedCount = 0;
+        memory.releaseAll();
+        for (Process p : processes) {
+            resetProcess(p);
+        }
+        ticksSinceCheckpoint = 0;
+        scheduleFromState();
+    }
+
+    /**
+     * Lleva la simulación exactamente al tick indicado, hacia adelante o hacia atrás.
+     * <p>
+     * Si existe un checkpoint entre el tick actual y el destino (o antes del destino, al retroceder),
+     * se restaura y solo se re-ejecutan los ticks que faltan, que nunca son más que el intervalo de
+     * checkpoints. Sin checkpoint útil, retroceder reinicia el estado y avanza desde el principio.
+     *
+     * @param tick El tick destino. Con -1 se obtiene el estado inicial.
+     */
+    public void seek(int tick) {
+        if (tick < time) {
+            CheckpointBuffer.Checkpoint checkpoint = checkpoints.floor(tick, -1);
+            if (checkpoint != null) {
+                restore(checkpoint);
+            } else {
+                reset();
+            }
+        } else {
+            CheckpointBuffer.Checkpoint checkpoint = checkpoints.floor(tick, time);
+            if (checkpoint != null) {
+                restore(checkpoint);
+            }
+        }
+        advanceTo(tick);
+    }
+
+    /**
+     * Ejecuta todos los eventos pendientes hasta el tick indicado (inclusive) y deja el motor en ese tick.
+     * Los ticks sin eventos no se ejecutan: el tiempo salta sobre ellos.
+     */
+    public void advanceTo(int tick) {
+        while (!events.isEmpty() && events.peekTick() <= tick) {
+            processNextEvent();
+        }
+        skipTo(tick);
+        syncCpuProcess();
+    }
+
+    /**
+     * Ejecuta la simulación hasta que todos los procesos finalicen o ya no queden eventos.
+     *
+     * @return `true` si todos los procesos finalizaron; `false` si alguno nunca pudo ejecutarse
+     *         (por ejemplo, un proceso LIFO más grande que toda la memoria).
+     */
+    public boolean runToCompletion() {
+        while (!isFinished() && !events.isEmpty()) {
+            processNextEvent();
+        }
+        syncCpuProcess();
+        return isFinished();
+    }
+
+    /**
+     * Atiende todos los eventos del tick más próximo. Los ticks intermedios no tienen eventos y no cambian el
+     * estado, salvo la duración restante del proceso en CPU, que se calcula al vuelo.
+     */
+    private void processNextEvent() {
+        int tick = events.popTick();
+        if (tick <= time) {
+            return;
+        }
+        skipTo(tick - 1);
+        runTick(tick);
+        ticksSinceCheckpoint++;
+        storeCheckpointIfDue();
+    }
+
+    /**
+     * Avanza el reloj sobre ticks sin eventos. Si el salto cruza la frontera de un checkpoint, guarda el
+     * de la última frontera cruzada.
+     */
+    private void skipTo(int tick) {
+        if (tick <= time) {
+            return;
+        }
+        int boundary = checkpoints.boundaryAtOrBefore(tick);
+        if (boundary > time) {
+            time = boundary;
+            storeCheckpointIfDue();
+        }
+        time = tick;
+    }
+
+    /**
+     * Ejecuta un tick con eventos siguiendo siempre el mismo orden: llegadas, expulsión por quantum,
+     * despacho y trabajo de la CPU. Cada paso comprueba su propia condición, así que un evento obsoleto
+     * (por ejemplo, la finalización de un proceso que ya fue expulsado) no tiene efecto.
+     */
+    private void runTick(int tick) {
+        time = tick;
+
+        // 1. Llegada de procesos a la memoria.
+        if (hasPendingArrival() && arrivalOrder[arrivalCursor].getArrivalTime() == tick) {
+            admitArrivals();
+            if (hasPendingArrival()) {
+                events.push(arrivalOrder[arrivalCursor].getArrivalTime(), EventQueue.Type.ARRIVAL);
+            }
+        }
+        if (pagedMemory && !pendingAdmission.isEmpty()) {
+            admitToPagedMemory();
+        }
+
+        // 2. Expulsión por quantum (solo Round Robin).
+        if (quantum > 0 && cpuProcess != null && tick - dispatchTick >= quantum) {
+            cpuProcess.setRemainingDuration(remainingAtDispatch - (tick - dispatchTick));
+            if (cpuProcess.getRemainingDuration() > 0) {
+                cpuProcess.setState(ProcessState.WAITING);
+                memoryQueue.add(cpuProcess);
+                listener.onPreempted(cpuProcess, time);
+            }
+            cpuProcess = null;
+        }
+
+        // 3. Despacho: si la CPU está libre, el algoritmo elige el siguiente proceso.
+        if (cpuProcess == null && !memoryQueue.isEmpty()) {
+            cpuProcess = selectNext();
+            cpuProcess.setState(ProcessState.RUNNING);
+            dispatchTick = tick;
+            remainingAtDispatch = cpuProcess.getRemainingDuration();
+            listener.onDispatched(cpuProcess, time);
+            scheduleCpuEvents();
+            if (pagedMemory && !pendingAdmission.isEmpty()) {
+                // El despacho liberó memoria: los procesos pendientes se reintentan en el siguiente tick.
+                events.push(tick + 1, EventQueue.Type.ADMISSION_RETRY);
+            }
+        }
+
+        // 4. Trabajo de la CPU y finalización.
+        if (cpuProcess != null && tick == completionTick()) {
+            markFinished(cpuProcess);
+            if (arrivalSource == null && finishedCount == finishedLogSize) {
+                if (finishedLogSize == finishedLog.length) {
+                    finishedLog = Arrays.copyOf(finishedLog, finishedLogSize * 2);
+                }
+                finishedLog[finishedLogSize++] = cpuProcess;
+            }
+            finishedCount++;
+            listener.onFinished(cpuProcess, time);
+            cpuProcess = null;
+            if (!memoryQueue.isEmpty()) {
+                events.push(tick + 1, EventQueue.Type.DISPATCH);
+            }
+        }
+    }
+
+    /** @return El tick al final del cual termina el proceso en CPU si nadie lo expulsa. */
+    private int completionTick() {
+        return dispatchTick + Math.max(remainingAtDispatch, 1) - 1;
+    }
+
+    private void scheduleCpuEvents() {
+        events.push(completionTick(), EventQueue.Type.COMPLETION);
+        if (quantum > 0 && remainingAtDispatch > quantum) {
+            events.push(dispatchTick + quantum, EventQueue.Type.QUANTUM_EXPIRY);
+        }
+    }
+
+    /**
+     * Reconstruye la cola de eventos a partir del estado actual, tras un reinicio o al restaurar un checkpoint.
+     */
+    private void scheduleFromState() {
+        events.clear();
+        arrivalCursor = firstArrivalAfter(time);
+        if (arrivalCursor < arrivalCount) {
+            events.push(arrivalOrder[arrivalCursor].getArrivalTime(), EventQueue.Type.ARRIVAL);
+        }
+        if (cpuProcess != null) {
+            scheduleCpuEvents();
+        } else if (!memoryQueue.isEmpty()) {
+            events.push(time + 1, EventQueue.Type.DISPATCH);
+        }
+        if (!pendingAdmission.isEmpty()) {
+            events.push(time + 1, EventQueue.Type.ADMISSION_RETRY);
+        }
+    }
+
+    /** Escribe en el proceso en CPU la duración restante que le corresponde al tick actual. */
+    private void syncCpuProcess() {
+        if (cpuProcess != null) {
+            cpuProcess.setRemainingDuration(cpuRemaining());
+        }
+    }
+
+    /** @return La duración restante del proceso en CPU al final del tick actual. */
+    private int cpuRemaining() {
+        return remainingAtDispatch - (time - dispatchTick + 1);
+    }
+
+    /** @return La posición en {@link #arrivalOrder} del primer proceso que llega después de {@code tick}. */
+    private int firstArrivalAfter(int tick) {
+        int low = 0;
+        int high = arrivalCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (arrivalOrder[mid].getArrivalTime() <= tick) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /** @return `true` si queda algún proceso por llegar. Con una traza, rellena la ventana cuando se agota. */
+    private boolean hasPendingArrival() {
+        if (arrivalCursor == arrivalCount && arrivalSource != null) {
+            refillArrivals();
+        }
+        return arrivalCursor < arrivalCount;
+    }
+
+    /**
+     * Lee de la traza la siguiente ventana de llegadas.
+     *
+     * @throws IllegalArgumentException Si la traza no está ordenada por tiempo de llegada.
+     */
+    private void refillArrivals() {
+        arrivalCount = 0;
+        arrivalCursor = 0;
+        while (arrivalCount < arrivalOrder.length && arrivalSource.hasNext()) {
+            Process p = arrivalSource.next();
+            if (p.getArrivalTime() < lastStreamedArrival) {
+                throw new IllegalArgumentException("La traza no está ordenada por llegada: el proceso " + p.getPid()
+                        + " llega en " + p.getArrivalTime() + ", antes que el anterior (" + lastStreamedArrival + ")");
+            }
+            lastStreamedArrival = p.getArrivalTime();
+            arrivalOrder[arrivalCount++] = p;
+            streamedCount++;
+        }
+    }
+
+    /**
+     * Toma del índice de llegadas a los procesos que llegan en el tick actual. En LIFO pasan a la lista de
+     * admisión pendiente; en los demás algoritmos entran directamente a la cola de memoria.
+     * <p>
+     * El estado del proceso indica en O(1) si ya está en el sistema, así que un mismo proceso repetido en la
+     * lista de carga solo se admite una vez, sin buscarlo en la cola de memoria.
+     */
+    private void admitArrivals() {
+        while (hasPendingArrival() && arrivalOrder[arrivalCursor].getArrivalTime() == time) {
+            Process p = arrivalOrder[arrivalCursor++];
+            if (p.getState() != ProcessState.NEW) {
+                continue;
+            }
+            listener.onArrived(p, time);
+            if (pagedMemory) {
+                pendingAdmission.add(p, memory.framesNeeded(p.getSize()));
+                continue;
+            }
+            p.setState(ProcessState.WAITING);
+            memoryQueue.add(p);
+            listener.onAdmitted(p, time);
+        }
+    }
+
+    /**
+     * Admite en la memoria paginada a los procesos pendientes que todavía caben, en orden de llegada.
+     * Un proceso que no cabe se reintenta cuando un despacho libera memoria.
+     * <p>
+     * Como la memoria libre solo disminuye mientras se admite, tomar repetidamente al proceso más antiguo que cabe
+     * equivale a recorrer la lista completa, y {@link AdmissionQueue} lo encuentra sin revisar a los que no caben.
+     */
+    private void admitToPagedMemory() {
+        Process p;
+        while ((p = pendingAdmission.pollFitting(memory.getFreeCount())) != null) {
+            if (p.getState() != ProcessState.NEW) {
+                continue; // Aparecía repetido en la lista y ya fue admitido.
+            }
+            memory.allocate(p);
+            listener.onPagesAllocated(p, memory.framesOf(p), time);
+            p.setState(ProcessState.IN_MEMORY);
+            memoryQueue.add(p);
+            listener.onAdmitted(p, time);
+        }
+    }
+
+    /**
+     * Extrae de la cola de memoria el siguiente proceso según la política. En SJF y LJF la cabeza del heap ya es
+     * el proceso más corto (o más largo).
+     */
+    private Process selectNext() {
+        Process next = memoryQueue.remove();
+        if (pagedMemory) {
+            // Al pasar a la CPU, el proceso libera sus marcos de memoria.
+            int[] frames = memory.framesOf(next);
+            memory.free(next);
+            if (frames != null) {
+                listener.onPagesFreed(next, frames, time);
+            }
+        }
+        return next;
+    }
+
+    // --- Checkpoints ---
+
+    /** Guarda un checkpoint si el tick actual es una frontera sin checkpoint y copiar el estado vale la pena. */
+    private void storeCheckpointIfDue() {
+        if (checkpoints.isDue(time)) {
+            int active = memoryQueue.size() + pendingAdmission.size() + (cpuProcess != null ? 1 : 0);
+            if (checkpoints.isWorthStoring(active, ticksSinceCheckpoint)) {
+                checkpoints.store(takeCheckpoint());
+                ticksSinceCheckpoint = 0;
+            }
+        }
+    }
+
+    /** @return La memoria aproximada que ocupan los checkpoints guardados. */
+    long getCheckpointBytes() {
+        return checkpoints.getRetainedBytes();
+    }
+
+    private CheckpointBuffer.Checkpoint takeCheckpoint() {
+        Process[] ready = memoryQueue.toArray(new Process[0]);
+        int[] readyRemaining = new int[ready.length];
+        // En LIFO los procesos en memoria son exactamente los que ocupan marcos.
+        int[][] readyFrames = pagedMemory ? new int[ready.length][] : null;
+        for (int i = 0; i < ready.length; i++) {
+            readyRemaining[i] = ready[i].getRemainingDuration();
+            if (readyFrames != null) {
+                readyFrames[i] = memory.framesOf(ready[i]);
+            }
+        }
+        return new CheckpointBuffer.Checkpoint(time, finishedCount, cpuProcess, dispatchTick, remainingAtDispatch,
+                ready, readyRemaining, readyFrames, pendingAdmission.toArray());
+    }
+
+    /**
+     * Coloca el motor en el estado de un checkpoint. Solo se tocan los procesos cuyo estado difiere entre
+     * el tick actual y el del checkpoint: los activos de ambos lados y los que finalizaron entre uno y otro.
+     */
+    private void restore(CheckpointBuffer.Checkpoint checkpoint) {
+        // 1. Los procesos activos ahora vuelven a su estado inicial; si siguen activos en el checkpoint, se reescriben abajo.
+        for (Process p : memoryQueue) {
+            resetProcess(p);
+        }
+        if (cpuProcess != null) {
+            resetProcess(cpuProcess);
+        }
+
+        // 2. Ajustar qué prefijo del registro de finalización está vigente.
+        for (int i = checkpoint.finishedCount; i < finishedCount; i++) {
+            resetProcess(finishedLog[i]);
+        }
+        for (int i = finishedCount; i < checkpoint.finishedCount; i++) {
+            markFinished(finishedLog[i]);
+        }
+        finishedCount = checkpoint.finishedCount;
+
+        // 3. Reconstruir la cola de memoria, la CPU y los marcos.
+        memoryQueue.clear();
+        memory.releaseAll();
+        int readyCount = checkpoint.ready.length;
+        for (int k = 0; k < readyCount; k++) {
+            // El checkpoint guarda la cola en orden de despacho; una pila se reconstruye desde el fondo.
+            int i = lastInFirstOut ? readyCount - 1 - k : k;
+            Process p = checkpoint.ready[i];
+            p.setRemainingDuration(checkpoint.readyRemaining[i]);
+            p.setState(pagedMemory ? ProcessState.IN_MEMORY : ProcessState.WAITING);
+            memoryQueue.add(p);
+            if (checkpoint.readyFrames != null) {
+                memory.place(p, checkpoint.readyFrames[i]);
+            }
+        }
+        time = checkpoint.time;
+        cpuProcess = checkpoint.cpuProcess;
+        dispatchTick = checkpoint.dispatchTick;
+        remainingAtDispatch = checkpoint.remainingAtDispatch;
+        if (cpuProcess != null) {
+            cpuProcess.setState(ProcessState.RUNNING);
+            syncCpuProcess();
+        }
+        pendingAdmission.restore(checkpoint.pending);
+        ticksSinceCheckpoint = 0;
+
+        scheduleFromState();
+    }
+
+    private static void resetProcess(Process p) {
+        p.setState(ProcessState.NEW);
+        p.setRemainingDuration(p.getDuration());
+    }
+
+    private static void markFinished(Process p) {
+        p.setState(ProcessState.FINISHED);
+        p.setRemainingDuration(0);
+    }
+
+    // --- Consultas del estado actual ---
+
+    public SchedulingPolicy getPolicy() {
+        return policy;
+    }
+
+    /** @return El último tick ejecutado, o -1 si la simulación no ha comenzado. */
+    public int getTime() {
+        return time;
+    }
+
+    /** @return El proceso en la CPU, o `null` si está libre. */
+    public Process getCpuProcess() {
+        return cpuProcess;
+    }
+
+    /** @return Los segundos que lleva en la CPU el proceso actual dentro de su quantum. */
+    public int getQuantumCounter() {
+        return cpuProcess != null ? time - dispatchTick + 1 : 0;
+    }
+
+    /**
+     * @return Una copia de la cola de memoria en orden de despacho: el primer elemento es el que tomaría la CPU.
+     *         Copiarla cuesta O(n) con cualquier política; con un heap, la copia se ordena solo hasta donde se lee.
+     */
+    public List<Process> getReadyProcesses() {
+        return readyCopy(memoryQueue);
+    }
+
+    /** @return Vista de solo lectura de los procesos finalizados, en orden de finalización. */
+    public List<Process> getFinishedProcesses() {
+        int visible = Math.min(finishedCount, finishedLogSize); // Con una traza en streaming no hay registro.
+        return Collections.unmodifiableList(Arrays.asList(finishedLog).subList(0, visible));
+    }
+
+    /** @return Cuántos procesos se cargaron; con una traza en streaming, cuántos se han leído hasta ahora. */
+    public int getLoadedCount() {
+        return arrivalSource != null ? streamedCount : processes.size();
+    }
+
+    /** @return Cuántos procesos han finalizado, también con una traza en streaming. */
+    public int getFinishedCount() {
+        return finishedCount;
+    }
+
+    /** @return Copia de los slots de la memoria paginada; un slot libre vale `null`. */
+    public Process[] getMemorySlots() {
+        return memory.snapshotOwners();
+    }
+
+    /** @return Número de marcos de la memoria paginada (0 si el algoritmo no la usa). */
+    public int getMemoryFrames() {
+        return memory.getFrameCount();
+    }
+
+    /** @return Tamaño de cada marco de la memoria paginada, en KB. */
+    public int getPageSize() {
+        return memory.getPageSize();
+    }
+
+    /**
+     * @return Una copia inmutable del estado actual, que se puede entregar a otro hilo. Solo comparte con el
+     *         motor el registro de finalización, cuyas posiciones visibles en la copia ya no cambian.
+     */
+    public SimulationSnapshot snapshot() {
+        return new SimulationSnapshot(time, cpuProcess, getQuantumCounter(), getReadyProcesses(),
+                finishedLog, Math.min(finishedCount, finishedLogSize), memory.snapshotOwners(), memory.snapshotFragments(),
+                memory.snapshotUsage(), memory.getPageSize(), isFinished());
+    }
+
+    /** @return `true` si todos los procesos cargados ya finalizaron. */
+    public boolean isFinished() {
+        if (arrivalSource != null) {
+            return finishedCount == streamedCount && !hasPendingArrival();
+        }
+        return finishedCount == processes.size();
+    }
+
+    /**
+     * Cota superior del tick en el que termina la simulación: la última llegada más la suma de todas las
+     * duraciones. La CPU nunca está ociosa con procesos pendientes después de la última llegada.
+     */
+    public int getEndTickBound() {
+        return endTickBound(processes);
+    }
+
+    /**
+     * Crea la cola de listos que describe una política: un {@link OrderedReadyQueue} si define un orden, una pila o
+     * una cola sobre un {@link ArrayDeque} si no. Todas se usan con {@code add} y {@code remove} y se recorren en
+     * orden de despacho.
+     */
+    static Queue<Process> newReadyQueue(SchedulingPolicy policy) {
+        Comparator<Process> order = policy.getReadyOrder();
+        if (order != null) {
+            return new OrderedReadyQueue(order);
+        } else if (policy.isLastInFirstOut()) {
+            return Collections.asLifoQueue(new ArrayDeque<>());
+        }
+        return new ArrayDeque<>();
+    }
+
+    /** Copia una cola creada con {@link #newReadyQueue(SchedulingPolicy)} en orden de despacho. */
+    static List<Process> readyCopy(Queue<Process> queue) {
+        if (queue instanceof OrderedReadyQueue) {
+            return ((OrderedReadyQueue) queue).orderedCopy();
+        }
+        return new ArrayList<>(queue);
+    }
+
+    /** @see #getEndTickBound() */
+    public static int endTickBound(List<Process> processes) {
+        int lastArrival = 0;
+        long totalDuration = 0;
+        for (Process p : processes) {
+            lastArrival = Math.max(lastArrival, p.getArrivalTime());
+            totalDuration += p.getDuration();
+        }
+        return (int) Math.min(Integer.MAX_VALUE, lastArrival + totalDuration);
+    }
+
+    public void setListener(SimulationListener listener) {
+        this.listener = listener;
+    }
+}
@@ -0,0 +1,98 @@
+package tecnm.celaya.edu.mx.despachadorapp;
+
+/**
+ * Recibe las transiciones de estado que produce {@link SimulationEngine}.
+ * <p>
+ * Todos los métodos tienen una implementación vacía, así que cada observador solo sobrescribe los eventos
+ * que le interesan. El tick indicado es aquel en el que ocurrió la transición. Al retroceder con
+ * {@link SimulationEngine#seek(int)} los ticks re-ejecutados vuelven a notificar sus eventos.
+ */
+public interface SimulationListener {
+
+    /** Un proceso llegó al sistema. En LIFO puede esperar lugar en la memoria antes de ser admitido. */
+    default void onArrived(Process p, int tick) {
+    }
+
+    /** Un proceso fue admitido en la memoria y quedó listo para la CPU. */
+    default void onAdmitted(Process p, int tick) {
+    }
+
+    /** Un proceso pasó de la memoria a la CPU. */
+    default void onDispatched(Process p, int tick) {
+    }
+
+    /** Un proceso agotó su quantum y regresó a la memoria. */
+    default void onPreempted(Process p, int tick) {
+    }
+
+    /** Un proceso terminó al final del tick indicado. */
+    default void onFinished(Process p, int tick) {
+    }
+
+    /**
+     * Un proceso recibió marcos de la memoria paginada (solo LIFO), justo antes de ser admitido.
+     *
+     * @param frames Los marcos en orden de fragmento. No se deben modificar.
+     */
+    default void onPagesAllocated(Process p, int[] frames, int tick) {
+    }
+
+    /**
+     * Un proceso liberó sus marcos de la memoria paginada al pasar a la CPU (solo LIFO), justo antes de ser
+     * despachado.
+     *
+     * @param frames Los marcos en orden de fragmento. No se deben modificar.
+     */
+    default void onPagesFreed(Process p, int[] frames, int tick) {
+    }
+
+    /**
+     * @return Un observador que notifica cada evento primero a este y después a {@code next}.
+     */
+    default SimulationListener andThen(SimulationListener next) {
+        SimulationListener first = this;
+        return new SimulationListener() {
+            @Override
+            public void onArrived(Process p, int tick) {
+                first.onArrived(p, tick);
+                next.onArrived(p, tick);
+            }
+
+            @Override
+            public void onAdmitted(Process p, int tick) {
+                first.onAdmitted(p, tick);
+                next.onAdmitted(p, tick);
+            }
+
+            @Override
+            public void onDispatched(Process p, int tick) {
+                first.onDispatched(p, tick);
+                next.onDispatched(p, tick);
+            }
+
+            @Override
+            public void onPreempted(Process p, int tick) {
+                first.onPreempted(p, tick);
+                next.onPreempted(p, tick);
+            }
+
+            @Override
+            public void onFinished(Process p, int tick) {
+                first.onFinished(p, tick);
+                next.onFinished(p, tick);
+            }
+
+            @Override
+            public void onPagesAllocated(Process p, int[] frames, int tick) {
+                first.onPagesAllocated(p, frames, tick);
+                next.onPagesAllocated(p, frames, tick);
+            }
+
+            @Override
+            public void onPagesFreed(Process p, int[] frames, int tick) {
+                first.onPagesFreed(p, frames, tick);
+                next.onPagesFreed(p, frames, tick);
+            }
+        };
+    }
+}
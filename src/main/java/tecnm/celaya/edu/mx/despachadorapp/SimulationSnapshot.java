@@ -0,0 +1,102 @@
+package tecnm.celaya.edu.mx.despachadorapp;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Estado inmutable de {@link SimulationEngine} en un tick, tal como lo muestra la interfaz.
+ * <p>
+ * El motor corre en su propio hilo ({@link SimulationWorker}) y publica una de estas copias después de cada
+ * avance o salto. Los procesos se comparten por referencia, así que de ellos solo se deben leer los datos
+ * que no cambian durante la simulación (PID, llegada, duración y tamaño); su estado y duración restante
+ * llegan a la tabla a través de {@link PropertyBatcher}.
+ */
+public final class SimulationSnapshot {
+
+    private final int time;
+    private final Process cpuProcess;
+    private final int quantumCounter;
+    private final List<Process> readyProcesses;
+    private final List<Process> finishedProcesses;
+    private final Process[] memorySlots;
+    private final int[] frameFragments;
+    private final int[] frameUsage;
+    private final int pageSize;
+    private final boolean finished;
+
+    SimulationSnapshot(int time, Process cpuProcess, int quantumCounter, List<Process> readyProcesses,
+                       Process[] finishedLog, int finishedCount, Process[] memorySlots, int[] frameFragments,
+                       int[] frameUsage, int pageSize, boolean finished) {
+        this.time = time;
+        this.cpuProcess = cpuProcess;
+        this.quantumCounter = quantumCounter;
+        this.readyProcesses = Collections.unmodifiableList(readyProcesses);
+        this.finishedProcesses = Collections.unmodifiableList(Arrays.asList(finishedLog).subList(0, finishedCount));
+        this.memorySlots = memorySlots;
+        this.frameFragments = frameFragments;
+        this.frameUsage = frameUsage;
+        this.pageSize = pageSize;
+        this.finished = finished;
+    }
+
+    /** @return El último tick ejecutado, o -1 si la simulación no ha comenzado. */
+    public int getTime() {
+        return time;
+    }
+
+    /** @return El proceso en la CPU, o `null` si está libre. */
+    public Process getCpuProcess() {
+        return cpuProcess;
+    }
+
+    /** @return Los segundos que lleva en la CPU el proceso actual dentro de su quantum. */
+    public int getQuantumCounter() {
+        return quantumCounter;
+    }
+
+    /** @return La cola de memoria en orden de despacho. */
+    public List<Process> getReadyProcesses() {
+        return readyProcesses;
+    }
+
+    /** @return Los procesos finalizados, en orden de finalización. */
+    public List<Process> getFinishedProcesses() {
+        return finishedProcesses;
+    }
+
+    /** @return Los procesos que ocupan cada slot de memoria (solo LIFO). */
+    public Process[] getMemorySlots() {
+        return memorySlots.clone();
+    }
+
+    /** @return El número de slots de la memoria paginada (0 si el algoritmo no la usa). */
+    public int getMemorySlotCount() {
+        return memorySlots.length;
+    }
+
+    /** @return El proceso que ocupa un slot, o `null` si está libre. */
+    public Process getMemorySlot(int slot) {
+        return memorySlots[slot];
+    }
+
+    /** @return Qué fragmento (desde 0) de su proceso guarda un slot, o -1 si está libre. */
+    public int getFragment(int slot) {
+        return frameFragments[slot];
+    }
+
+    /** @return Los KB ocupados de un slot. */
+    public int getUsedSpace(int slot) {
+        return frameUsage[slot];
+    }
+
+    /** @return Los KB libres de un slot. */
+    public int getFreeSpace(int slot) {
+        return pageSize - frameUsage[slot];
+    }
+
+    /** @return `true` si todos los procesos ya finalizaron. */
+    public boolean isFinished() {
+        return finished;
+    }
+}
@@ -0,0 +1,184 @@
+package tecnm.celaya.edu.mx.despachadorapp;
+
+import javafx.application.Platform;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Ejecuta un {@link SimulationEngine} en un hilo propio para que la ventana siga respondiendo aunque un paso
+ * o un salto sea costoso.
+ * <p>
+ * Los controladores no llaman al motor directamente: piden cargar una carga de trabajo o colocarse en un
+ * tick, y reciben en el hilo de JavaFX un {@link SimulationSnapshot} con el resultado. Ambas direcciones
+ * se agrupan: si llegan varias peticiones antes de que el hilo de simulación las atienda, solo se ejecuta
+ * la más reciente, y si la interfaz se atrasa, solo se le entrega la copia más reciente y las intermedias
+ * se descartan.
+ * <p>
+ * En lugar de una carga de trabajo se puede cargar una corrida grabada ({@link #replay(RunReplay)}): entonces los
+ * saltos los resuelve {@link RunReplay} a partir de los eventos del archivo y el motor no se ejecuta.
+ * <p>
+ * Si el motor o la grabación fallan (por ejemplo, con un archivo dañado), no se publica ninguna copia: el error se
+ * entrega en el hilo de JavaFX para que la vista detenga la reproducción y lo muestre.
+ * <p>
+ * El hilo es un daemon que termina solo tras unos segundos sin trabajo, así que cerrar la ventana no deja
+ * hilos vivos.
+ */
+public class SimulationWorker {
+
+    /**
+     * Lo que la interfaz pidió por última vez: una carga de trabajo (o una grabación, si {@code replay} no es
+     * `null`) y el tick en el que colocarse.
+     */
+    private static final class Request {
+        final List<Process> processes;
+        final RunReplay replay;
+        final int generation;
+        final int tick;
+
+        Request(List<Process> processes, RunReplay replay, int generation, int tick) {
+            this.processes = processes;
+            this.replay = replay;
+            this.generation = generation;
+            this.tick = tick;
+        }
+    }
+
+    /** Una copia del estado lista para entregarse, junto con la carga de trabajo a la que pertenece. */
+    private static final class Publication {
+        final SimulationSnapshot snapshot;
+        final int generation;
+
+        Publication(SimulationSnapshot snapshot, int generation) {
+            this.snapshot = snapshot;
+            this.generation = generation;
+        }
+    }
+
+    private final SimulationEngine engine;
+    private final Consumer<SimulationSnapshot> onSnapshot;
+    private final Consumer<RuntimeException> onError;
+    private final ThreadPoolExecutor executor;
+
+    private final AtomicReference<Request> request =
+            new AtomicReference<>(new Request(new ArrayList<>(), null, 0, -1));
+    private final AtomicBoolean runScheduled = new AtomicBoolean(false);
+
+    /** La copia pendiente de entregar a la interfaz, o `null` si ya se entregó. */
+    private final AtomicReference<Publication> pending = new AtomicReference<>();
+
+    /** La carga de trabajo vigente. Solo se escribe desde el hilo de JavaFX. */
+    private volatile int currentGeneration = 0;
+
+    /** Solo se accede desde el hilo de simulación. */
+    private List<Process> loadedProcesses = null;
+
+    /**
+     * @param onSnapshot Recibe en el hilo de JavaFX cada copia del estado que se publica.
+     * @param onError    Recibe en el hilo de JavaFX los errores del hilo de simulación de la carga vigente.
+     */
+    public SimulationWorker(SchedulingPolicy policy, Consumer<SimulationSnapshot> onSnapshot,
+                            Consumer<RuntimeException> onError) {
+        this.engine = new SimulationEngine(policy);
+        this.onSnapshot = onSnapshot;
+        this.onError = onError;
+        this.executor = new ThreadPoolExecutor(1, 1, 5, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "simulacion-" + policy.getName().toLowerCase(Locale.ROOT));
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * Registra un observador de las transiciones del motor. Sus métodos se llaman desde el hilo de
+     * simulación, así que no deben tocar la interfaz.
+     */
+    public void setListener(SimulationListener listener) {
+        executor.execute(() -> engine.setListener(listener));
+    }
+
+    /**
+     * Carga una nueva lista de procesos. La lista se copia, así que después se puede modificar libremente.
+     * Las copias del estado de cargas anteriores que sigan en camino ya no se entregan.
+     */
+    public void load(List<Process> processes) {
+        List<Process> copy = new ArrayList<>(processes);
+        int generation = request.updateAndGet(r -> new Request(copy, null, r.generation + 1, -1)).generation;
+        currentGeneration = generation;
+        schedule();
+    }
+
+    /**
+     * Carga una corrida grabada. A partir de aquí los saltos se resuelven con la grabación, hasta la siguiente
+     * llamada a {@link #load(List)}.
+     */
+    public void replay(RunReplay replay) {
+        int generation = request.updateAndGet(r -> new Request(replay.getProcesses(), replay, r.generation + 1, -1))
+                .generation;
+        currentGeneration = generation;
+        schedule();
+    }
+
+    /** Pide colocar la simulación en el tick indicado, hacia adelante o hacia atrás. */
+    public void seek(int tick) {
+        request.updateAndGet(r -> new Request(r.processes, r.replay, r.generation, tick));
+        schedule();
+    }
+
+    private void schedule() {
+        if (runScheduled.compareAndSet(false, true)) {
+            executor.execute(this::run);
+        }
+    }
+
+    /** Atiende la petición más reciente en el hilo de simulación y publica el resultado. */
+    private void run() {
+        runScheduled.set(false);
+        Request current = request.get();
+        SimulationSnapshot snapshot;
+        try {
+            if (current.replay != null) {
+                current.replay.seek(current.tick);
+                snapshot = current.replay.snapshot();
+            } else {
+                if (current.processes != loadedProcesses) {
+                    engine.load(current.processes);
+                    loadedProcesses = current.processes;
+                }
+                engine.seek(current.tick);
+                snapshot = engine.snapshot();
+            }
+        } catch (RuntimeException e) {
+            int generation = current.generation;
+            Platform.runLater(() -> {
+                if (generation == currentGeneration) {
+                    onError.accept(e);
+                }
+            });
+            return;
+        }
+        publish(snapshot, current.generation);
+    }
+
+    private void publish(SimulationSnapshot snapshot, int generation) {
+        if (pending.getAndSet(new Publication(snapshot, generation)) == null) {
+            Platform.runLater(this::deliver);
+        }
+    }
+
+    private void deliver() {
+        Publication publication = pending.getAndSet(null);
+        // Una copia de una carga de trabajo anterior ya no corresponde a lo que muestra la ventana.
+        if (publication != null && publication.generation == currentGeneration) {
+            onSnapshot.accept(publication.snapshot);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package tecnm.celaya.edu.mx.despachadorapp;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.Charset;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Escribe en disco los archivos de intercambio de los procesos admitidos en la memoria paginada
+ * ({@code simulation_files/P<pid>.txt}) sin bloquear a quien los pide.
+ * <p>
+ * {@link #submit(Process)} solo encola el proceso; un hilo propio vacía la cola por lotes y crea los archivos.
+ * Cada PID se encola una sola vez por sesión, así que re-ejecutar ticks al retroceder con el slider no vuelve
+ * a tocar el disco. Como antes, un archivo que ya existe no se sobrescribe.
+ * <p>
+ * El hilo es un daemon que termina solo tras unos segundos sin trabajo, igual que el de {@link SimulationWorker}.
+ */
+final class SwapFileWriter {
+
+    private final Path directory;
+    private final Set<Integer> submitted = ConcurrentHashMap.newKeySet();
+    private final Queue<Process> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+    private final ThreadPoolExecutor executor;
+
+    /** Solo se accede desde el hilo de escritura. */
+    private boolean directoryCreated = false;
+
+    /**
+     * @param directory La carpeta donde se crean los archivos. Se crea al escribir el primero.
+     */
+    SwapFileWriter(String directory) {
+        this.directory = Paths.get(directory).toAbsolutePath();
+        this.executor = new ThreadPoolExecutor(1, 1, 5, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "archivos-intercambio");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /** @return La ruta absoluta del archivo de intercambio de un proceso, exista o no todavía. */
+    String pathFor(int pid) {
+        return directory.resolve("P" + pid + ".txt").toString();
+    }
+
+    /**
+     * Pide crear el archivo de intercambio de un proceso. Regresa de inmediato y se puede llamar desde
+     * cualquier hilo.
+     */
+    void submit(Process p) {
+        if (submitted.add(p.getPid())) {
+            pending.add(p);
+            if (drainScheduled.compareAndSet(false, true)) {
+                executor.execute(this::drain);
+            }
+        }
+    }
+
+    /** Escribe todos los archivos pendientes en el hilo de escritura. */
+    private void drain() {
+        drainScheduled.set(false);
+        if (!directoryCreated) {
+            try {
+                Files.createDirectories(directory);
+                directoryCreated = true;
+            } catch (IOException e) {
+                System.err.println("No se pudo crear la carpeta " + directory + ": " + e.getMessage());
+                e.printStackTrace();
+                pending.clear();
+                return;
+            }
+        }
+        Process p;
+        while ((p = pending.poll()) != null) {
+            write(p);
+        }
+    }
+
+    private void write(Process p) {
+        Path file = directory.resolve("P" + p.getPid() + ".txt");
+        // CREATE_NEW reemplaza la consulta a File.exists(): si el archivo ya está, no se toca.
+        try (BufferedWriter writer = Files.newBufferedWriter(file, Charset.defaultCharset(),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE)) {
+            writer.write("ID: " + p.getPid());
+            writer.newLine();
+            writer.write("Tamaño: " + p.getSize() + " KB");
+            writer.newLine();
+        } catch (FileAlreadyExistsException e) {
+            // Lo creó una ejecución anterior.
+        } catch (IOException e) {
+            System.err.println("No se pudo escribir " + file + ": " + e.getMessage());
+            e.printStackTrace();
+        }
+    }
+}
@@ -0,0 +1,272 @@
+package tecnm.celaya.edu.mx.despachadorapp;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Punto de entrada sin interfaz gráfica para barrer parámetros: simula en paralelo cada combinación de
+ * algoritmo, quantum y semilla, y escribe en CSV las estadísticas agregadas de cada par algoritmo-quantum.
+ * <p>
+ * Uso:
+ * <pre>
+ * SweepApplication [--algorithm fifo|sjf|ljf|lifo|round_robin_lifo|all] [--quanta 0-8]
+ *                  [--seeds N] [--seed S] [--random N] [--parallelism P] [--output barrido.csv]
+ *                  [--arrivals DIST] [--durations DIST] [--sizes DIST]
+ * </pre>
+ * {@code --quanta} acepta valores y rangos separados por comas (por ejemplo {@code 1,2,4-6}); el quantum se aplica
+ * a todos los algoritmos con {@link SchedulingPolicy#withQuantum(int)} y 0 significa sin expulsión. Cada semilla,
+ * de {@code S} a {@code S + N - 1}, genera su propia carga de {@code --random} procesos con
+ * {@link WorkloadGenerator}, cuyas distribuciones se cambian con las mismas opciones que en
+ * {@link BatchApplication}.
+ * <p>
+ * Cada simulación es una tarea independiente en un {@link ForkJoinPool} de {@code --parallelism} hilos (por
+ * defecto, uno por procesador): crea su propia carga, su propio motor sin checkpoints y su propio
+ * {@link SchedulingMetrics}, así que las tareas no comparten nada mutable. Al final, las métricas de todas las
+ * semillas de cada algoritmo y quantum se combinan en orden, de modo que la salida es la misma con cualquier
+ * número de hilos.
+ */
+public class SweepApplication {
+
+    private static final String USAGE = "Uso: SweepApplication [--algorithm fifo|sjf|ljf|lifo|round_robin_lifo|all]"
+            + " [--quanta 0-8] [--seeds N] [--seed S] [--random N] [--parallelism P] [--output barrido.csv]"
+            + " [--arrivals DIST] [--durations DIST] [--sizes DIST]";
+
+    public static void main(String[] args) {
+        Set<Algorithm> algorithms = EnumSet.allOf(Algorithm.class);
+        Set<Integer> quanta = parseQuanta("0-8");
+        int seedCount = 16;
+        long firstSeed = 1;
+        int processCount = 10_000;
+        int parallelism = Runtime.getRuntime().availableProcessors();
+        Path output = null;
+        WorkloadGenerator generator = new WorkloadGenerator(0);
+
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if (option.equals("--help") || option.equals("-h")) {
+                    System.out.println(USAGE);
+                    return;
+                }
+                if (i + 1 >= args.length) {
+                    throw new IllegalArgumentException("Falta el valor de " + option);
+                }
+                String value = args[++i];
+                switch (option) {
+                    case "--algorithm":
+                        algorithms = BatchApplication.parseAlgorithms(value);
+                        break;
+                    case "--quanta":
+                        quanta = parseQuanta(value);
+                        break;
+                    case "--seeds":
+                        seedCount = Integer.parseInt(value);
+                        break;
+                    case "--seed":
+                        firstSeed = Long.parseLong(value);
+                        break;
+                    case "--random":
+                        processCount = Integer.parseInt(value);
+                        break;
+                    case "--parallelism":
+                        parallelism = Integer.parseInt(value);
+                        break;
+                    case "--output":
+                        output = Path.of(value);
+                        break;
+                    case "--arrivals":
+                        generator.setArrivalGaps(WorkloadGenerator.Distribution.parse(value));
+                        break;
+                    case "--durations":
+                        generator.setDurations(WorkloadGenerator.Distribution.parse(value));
+                        break;
+                    case "--sizes":
+                        generator.setSizes(WorkloadGenerator.Distribution.parse(value));
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Opción desconocida: " + option);
+                }
+            }
+            if (seedCount < 1 || processCount < 1 || parallelism < 1) {
+                throw new IllegalArgumentException("--seeds, --random y --parallelism deben ser al menos 1");
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            System.exit(1);
+            return;
+        }
+
+        // Una simulación por combinación, agrupadas por algoritmo y quantum para agregarlas en orden.
+        List<Run> runs = new ArrayList<>(algorithms.size() * quanta.size() * seedCount);
+        for (Algorithm algorithm : algorithms) {
+            for (int quantum : quanta) {
+                SchedulingPolicy policy = algorithm.withQuantum(quantum);
+                for (int s = 0; s < seedCount; s++) {
+                    runs.add(new Run(algorithm, quantum, policy, generator.withSeed(firstSeed + s), processCount));
+                }
+            }
+        }
+
+        long start = System.nanoTime();
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            pool.invoke(new SweepTask(runs, 0, runs.size()));
+        } finally {
+            pool.shutdown();
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+        System.err.printf(Locale.ROOT, "%d simulaciones de %d procesos en %d hilos, %d ms%n",
+                runs.size(), processCount, parallelism, elapsedMillis);
+
+        try (Writer writer = output != null
+                ? Files.newBufferedWriter(output, StandardCharsets.UTF_8)
+                : new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8))) {
+            writeSummary(runs, seedCount, writer);
+        } catch (IOException e) {
+            System.err.println("Error de E/S: " + e.getMessage());
+            System.exit(2);
+        }
+    }
+
+    /**
+     * Escribe una fila por algoritmo y quantum con la media, la desviación estándar y los percentiles 50 y 99 de
+     * cada métrica sobre todos los procesos de todas las semillas, el throughput y el tick final promedio.
+     */
+    private static void writeSummary(List<Run> runs, int seedCount, Writer writer) throws IOException {
+        writer.write("algorithm,quantum,runs,processes,"
+                + "turnaround_mean,turnaround_stdev,turnaround_p50,turnaround_p99,"
+                + "waiting_mean,waiting_stdev,waiting_p50,waiting_p99,"
+                + "response_mean,response_stdev,response_p50,response_p99,"
+                + "throughput,makespan_mean,incomplete\n");
+        for (int first = 0; first < runs.size(); first += seedCount) {
+            Run head = runs.get(first);
+            SchedulingMetrics total = new SchedulingMetrics();
+            long makespan = 0;
+            long incomplete = 0;
+            for (int i = first; i < first + seedCount; i++) {
+                Run run = runs.get(i);
+                total.add(run.metrics);
+                makespan += run.makespan;
+                incomplete += run.incomplete;
+            }
+            StringBuilder row = new StringBuilder();
+            row.append(head.algorithm).append(',').append(head.quantum).append(',').append(seedCount).append(',')
+                    .append(total.getFinishedCount());
+            for (LogHistogram histogram : new LogHistogram[]{total.getTurnaround(), total.getWaiting(),
+                    total.getResponse()}) {
+                row.append(String.format(Locale.ROOT, ",%.4f,%.4f,%d,%d", histogram.getMean(), histogram.getStdDev(),
+                        histogram.getValueAtPercentile(50), histogram.getValueAtPercentile(99)));
+            }
+            row.append(String.format(Locale.ROOT, ",%.6f,%.2f,%d\n", total.getThroughput(),
+                    (double) makespan / seedCount, incomplete));
+            writer.write(row.toString());
+        }
+    }
+
+    /**
+     * Acepta valores y rangos separados por comas, por ejemplo {@code 0,2,4-6}.
+     *
+     * @return Los quantums en orden ascendente y sin repetir.
+     */
+    static Set<Integer> parseQuanta(String value) {
+        Set<Integer> quanta = new TreeSet<>();
+        for (String part : value.split(",")) {
+            part = part.trim();
+            int dash = part.indexOf('-', 1);
+            int from;
+            int to;
+            try {
+                from = Integer.parseInt(dash < 0 ? part : part.substring(0, dash).trim());
+                to = dash < 0 ? from : Integer.parseInt(part.substring(dash + 1).trim());
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Quantum inválido: " + part);
+            }
+            if (from < 0 || to < from) {
+                throw new IllegalArgumentException("Rango de quantum inválido: " + part);
+            }
+            for (int q = from; q <= to; q++) {
+                quanta.add(q);
+            }
+        }
+        if (quanta.isEmpty()) {
+            throw new IllegalArgumentException("No se indicó ningún quantum");
+        }
+        return quanta;
+    }
+
+    /**
+     * Una simulación del barrido. Sus resultados los escribe solo la tarea que la ejecuta y se leen después
+     * de {@link ForkJoinPool#invoke}, que garantiza su visibilidad.
+     */
+    private static final class Run {
+        final Algorithm algorithm;
+        final int quantum;
+        final SchedulingPolicy policy;
+        final WorkloadGenerator generator;
+        final int processCount;
+
+        final SchedulingMetrics metrics = new SchedulingMetrics();
+        int makespan;
+        int incomplete;
+
+        Run(Algorithm algorithm, int quantum, SchedulingPolicy policy, WorkloadGenerator generator, int processCount) {
+            this.algorithm = algorithm;
+            this.quantum = quantum;
+            this.policy = policy;
+            this.generator = generator;
+            this.processCount = processCount;
+        }
+
+        void execute() {
+            List<Process> workload = generator.generate(processCount);
+            SimulationEngine engine = new SimulationEngine(policy, SimulationEngine.DEFAULT_CHECKPOINT_INTERVAL, 0);
+            engine.setListener(metrics);
+            engine.load(workload);
+            engine.runToCompletion();
+            makespan = engine.getTime() + 1;
+            incomplete = processCount - (int) metrics.getFinishedCount();
+        }
+    }
+
+    /** Divide las simulaciones a la mitad hasta que queda una por tarea. */
+    private static final class SweepTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final List<Run> runs;
+        private final int from;
+        private final int to;
+
+        SweepTask(List<Run> runs, int from, int to) {
+            this.runs = runs;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= 0) {
+                return;
+            }
+            if (to - from == 1) {
+                runs.get(from).execute();
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            invokeAll(new SweepTask(runs, from, middle), new SweepTask(runs, middle, to));
+        }
+    }
+}
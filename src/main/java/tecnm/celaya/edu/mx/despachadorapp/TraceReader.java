@@ -0,0 +1,287 @@
+package tecnm.celaya.edu.mx.despachadorapp;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Lee una traza de procesos de un archivo, un proceso a la vez, sin cargar el archivo completo en memoria.
+ * <p>
+ * Reconoce dos formatos por su contenido:
+ * <ul>
+ *     <li>CSV con una línea {@code pid,llegada,duracion[,tamaño]} por proceso, como el de
+ *     {@link BatchApplication#readWorkload(Path)}: se ignoran las líneas vacías, los comentarios que empiezan con
+ *     {@code #} y un encabezado opcional. Se lee por bloques de {@value #CSV_CHUNK_BYTES} bytes con un
+ *     {@link FileChannel} y los números se interpretan directamente de los bytes, sin crear cadenas.</li>
+ *     <li>El formato binario de {@link TraceWriter}, que se lee con {@link FileChannel#map} en ventanas de
+ *     {@value #MAPPED_WINDOW_RECORDS} registros.</li>
+ * </ul>
+ * En ambos casos la memoria usada no depende del tamaño del archivo: solo se conserva el bloque o la ventana
+ * actual. Los errores de lectura se lanzan como {@link UncheckedIOException} y los de formato como
+ * {@link IllegalArgumentException} con el archivo y la línea o el registro, porque {@link Iterator} no permite
+ * excepciones verificadas.
+ */
+public abstract class TraceReader implements Iterator<Process>, Closeable {
+
+    static final int CSV_CHUNK_BYTES = 256 * 1024;
+    static final int MAPPED_WINDOW_RECORDS = 1 << 20;
+
+    protected final Path path;
+    protected final FileChannel channel;
+    private Process next;
+    private boolean done;
+
+    private TraceReader(Path path, FileChannel channel) {
+        this.path = path;
+        this.channel = channel;
+    }
+
+    /**
+     * Abre una traza en CSV o en formato binario, según sus primeros bytes.
+     */
+    public static TraceReader open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(TraceWriter.MAGIC.length);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // Leer hasta tener el encabezado o llegar al final.
+            }
+            channel.position(0);
+            if (!header.hasRemaining() && Arrays.equals(header.array(), TraceWriter.MAGIC)) {
+                return new Binary(path, channel);
+            }
+            return new Csv(path, channel);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /** @return El siguiente proceso del archivo, o `null` al llegar al final. */
+    protected abstract Process read() throws IOException;
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !done) {
+            try {
+                next = read();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            done = next == null;
+        }
+        return next != null;
+    }
+
+    @Override
+    public Process next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        Process p = next;
+        next = null;
+        return p;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /** Lector de CSV por bloques. */
+    private static final class Csv extends TraceReader {
+        private final byte[] bytes = new byte[CSV_CHUNK_BYTES];
+        private final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        private final int[] fields = new int[4];
+        private int position = 0;
+        private int limit = 0;
+        private boolean endOfFile = false;
+        private boolean firstRecord = true;
+        private long lineNumber = 0;
+
+        Csv(Path path, FileChannel channel) {
+            super(path, channel);
+        }
+
+        @Override
+        protected Process read() throws IOException {
+            while (true) {
+                int end = indexOfLineEnd();
+                if (end < 0) {
+                    if (endOfFile) {
+                        if (position == limit) {
+                            return null;
+                        }
+                        end = limit; // Última línea sin salto de línea.
+                    } else {
+                        fill();
+                        continue;
+                    }
+                }
+                int start = position;
+                position = Math.min(end + 1, limit);
+                lineNumber++;
+                Process p = parseLine(start, end);
+                if (p != null) {
+                    return p;
+                }
+            }
+        }
+
+        private int indexOfLineEnd() {
+            for (int i = position; i < limit; i++) {
+                if (bytes[i] == '\n') {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        /** Mueve la línea incompleta al inicio del bloque y lee más bytes del canal. */
+        private void fill() throws IOException {
+            if (position == 0 && limit == bytes.length) {
+                throw new IllegalArgumentException(path + ":" + (lineNumber + 1) + ": línea demasiado larga");
+            }
+            System.arraycopy(bytes, position, bytes, 0, limit - position);
+            limit -= position;
+            position = 0;
+            buffer.limit(bytes.length).position(limit);
+            int read = channel.read(buffer);
+            if (read < 0) {
+                endOfFile = true;
+            } else {
+                limit += read;
+            }
+        }
+
+        /** @return El proceso de la línea, o `null` si es una línea vacía, un comentario o el encabezado. */
+        private Process parseLine(int start, int end) {
+            while (start < end && isSpace(bytes[start])) {
+                start++;
+            }
+            while (end > start && isSpace(bytes[end - 1])) {
+                end--;
+            }
+            if (start == end || bytes[start] == '#') {
+                return null;
+            }
+            if (firstRecord) {
+                firstRecord = false;
+                if (!isDigit(bytes[start])) {
+                    return null; // Encabezado.
+                }
+            }
+            int count = 0;
+            int fieldStart = start;
+            for (int i = start; i <= end && count < fields.length; i++) {
+                if (i == end || bytes[i] == ',') {
+                    if (i == end && count >= 3 && isBlank(fieldStart, i)) {
+                        break; // Coma al final de la línea.
+                    }
+                    fields[count++] = parseInt(fieldStart, i);
+                    fieldStart = i + 1;
+                }
+            }
+            if (count < 3) {
+                throw new IllegalArgumentException(path + ":" + lineNumber + ": se esperaban al menos 3 columnas");
+            }
+            Process p = new Process(fields[0], fields[1], fields[2]);
+            if (count > 3) {
+                p.setSize(fields[3]);
+            }
+            return p;
+        }
+
+        private int parseInt(int start, int end) {
+            while (start < end && isSpace(bytes[start])) {
+                start++;
+            }
+            while (end > start && isSpace(bytes[end - 1])) {
+                end--;
+            }
+            boolean negative = start < end && bytes[start] == '-';
+            int i = negative ? start + 1 : start;
+            if (i == end) {
+                throw invalidNumber();
+            }
+            long value = 0;
+            for (; i < end; i++) {
+                if (!isDigit(bytes[i])) {
+                    throw invalidNumber();
+                }
+                value = value * 10 + (bytes[i] - '0');
+                if (value > (long) Integer.MAX_VALUE + 1) {
+                    throw invalidNumber();
+                }
+            }
+            value = negative ? -value : value;
+            if (value > Integer.MAX_VALUE) {
+                throw invalidNumber();
+            }
+            return (int) value;
+        }
+
+        private boolean isBlank(int start, int end) {
+            for (int i = start; i < end; i++) {
+                if (!isSpace(bytes[i])) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private IllegalArgumentException invalidNumber() {
+            return new IllegalArgumentException(path + ":" + lineNumber + ": número inválido");
+        }
+
+        private static boolean isDigit(byte b) {
+            return b >= '0' && b <= '9';
+        }
+
+        private static boolean isSpace(byte b) {
+            return b == ' ' || b == '\t' || b == '\r';
+        }
+    }
+
+    /** Lector del formato binario por ventanas mapeadas en memoria. */
+    private static final class Binary extends TraceReader {
+        private final long recordCount;
+        private MappedByteBuffer window;
+        private long windowFirst = 0;
+        private long index = 0;
+
+        Binary(Path path, FileChannel channel) throws IOException {
+            super(path, channel);
+            long body = channel.size() - TraceWriter.MAGIC.length;
+            if (body % TraceWriter.RECORD_BYTES != 0) {
+                throw new IllegalArgumentException(path + ": la traza está truncada");
+            }
+            this.recordCount = body / TraceWriter.RECORD_BYTES;
+        }
+
+        @Override
+        protected Process read() throws IOException {
+            if (index == recordCount) {
+                return null;
+            }
+            if (window == null || index - windowFirst == MAPPED_WINDOW_RECORDS) {
+                windowFirst = index;
+                long records = Math.min(MAPPED_WINDOW_RECORDS, recordCount - index);
+                window = channel.map(FileChannel.MapMode.READ_ONLY,
+                        TraceWriter.MAGIC.length + index * TraceWriter.RECORD_BYTES, records * TraceWriter.RECORD_BYTES);
+            }
+            index++;
+            Process p = new Process(window.getInt(), window.getInt(), window.getInt());
+            p.setSize(window.getInt());
+            return p;
+        }
+    }
+}
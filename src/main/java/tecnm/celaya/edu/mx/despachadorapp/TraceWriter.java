@@ -0,0 +1,76 @@
+package tecnm.celaya.edu.mx.despachadorapp;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+
+/**
+ * Escribe una carga de trabajo en el formato binario de trazas que lee {@link TraceReader}.
+ * <p>
+ * El archivo empieza con los 4 bytes {@code TRC1} y sigue con un registro de {@value #RECORD_BYTES} bytes por
+ * proceso: pid, llegada, duración y tamaño, cada uno como entero de 32 bits big-endian. No hay conteo de
+ * registros: se deduce del tamaño del archivo, así que una traza se puede escribir sin conocer su longitud.
+ * Los registros se acumulan en un buffer de {@value #BUFFER_BYTES} bytes y se escriben al canal por bloques.
+ */
+public class TraceWriter implements Closeable {
+
+    /** Los primeros bytes de toda traza binaria. */
+    static final byte[] MAGIC = {'T', 'R', 'C', '1'};
+
+    /** Bytes por proceso: cuatro enteros de 32 bits. */
+    static final int RECORD_BYTES = 16;
+
+    private static final int BUFFER_BYTES = 64 * 1024;
+
+    private final FileChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_BYTES);
+    private long count = 0;
+
+    /** Crea (o reemplaza) el archivo y escribe el encabezado. */
+    public TraceWriter(Path path) throws IOException {
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.WRITE);
+        buffer.put(MAGIC);
+    }
+
+    public void write(Process p) throws IOException {
+        if (buffer.remaining() < RECORD_BYTES) {
+            flush();
+        }
+        buffer.putInt(p.getPid()).putInt(p.getArrivalTime()).putInt(p.getDuration()).putInt(p.getSize());
+        count++;
+    }
+
+    /** Escribe todos los procesos de una fuente, por ejemplo otra traza, sin guardarlos en memoria. */
+    public void writeAll(Iterator<Process> source) throws IOException {
+        while (source.hasNext()) {
+            write(source.next());
+        }
+    }
+
+    /** @return Cuántos procesos se han escrito. */
+    public long getCount() {
+        return count;
+    }
+
+    private void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            channel.close();
+        }
+    }
+}
@@ -0,0 +1,269 @@
+package tecnm.celaya.edu.mx.despachadorapp;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+/**
+ * Generador reproducible de cargas de trabajo sintéticas con distribuciones configurables.
+ * <p>
+ * Cada proceso toma su duración y su tamaño de una {@link Distribution}, y su llegada de la suma de las
+ * separaciones anteriores, que también siguen una distribución. Por defecto son las de las vistas: llegadas
+ * separadas de 0 a 2 segundos, duraciones de 2 a 6 y tamaños de 10 a 509 KB. Con separaciones
+ * {@link Distribution#exponential(double) exponenciales} las llegadas forman un proceso de Poisson.
+ * <p>
+ * La carga se genera en bloques de {@value #CHUNK_SIZE} procesos que se pueden calcular en paralelo. Cada bloque
+ * tiene sus propios {@link SplittableRandom}, con semillas que se derivan en orden de la semilla del generador,
+ * así que el resultado depende solo de la semilla y de las distribuciones, nunca del número de hilos. Como la
+ * llegada de un proceso depende de todas las separaciones anteriores, primero cada bloque suma sus separaciones,
+ * luego se acumulan los totales en orden y al final cada bloque crea sus procesos a partir de su tiempo inicial.
+ */
+public class WorkloadGenerator {
+
+    /** Procesos por bloque. Es fijo para que el resultado no dependa del paralelismo. */
+    static final int CHUNK_SIZE = 65536;
+
+    /** Cuántos bloques se generan a la vez al escribir una traza, lo que limita la memoria usada. */
+    private static final int CHUNKS_PER_BATCH = 64;
+
+    /**
+     * Una distribución de valores reales no negativos. Las duraciones y los tamaños se redondean al entero más
+     * cercano (una duración es al menos 1) y las llegadas se truncan al segundo en que ocurren.
+     */
+    public interface Distribution {
+
+        double sample(SplittableRandom random);
+
+        /** Siempre el mismo valor. */
+        static Distribution constant(double value) {
+            return random -> value;
+        }
+
+        /** Un entero uniforme entre {@code min} y {@code max}, ambos incluidos. */
+        static Distribution uniform(int min, int max) {
+            if (min < 0 || max < min) {
+                throw new IllegalArgumentException("Rango uniforme inválido: " + min + ".." + max);
+            }
+            return random -> random.nextInt(min, max + 1);
+        }
+
+        /** Exponencial con la media indicada. Como separación entre llegadas produce un proceso de Poisson. */
+        static Distribution exponential(double mean) {
+            if (!(mean > 0)) {
+                throw new IllegalArgumentException("La media debe ser positiva: " + mean);
+            }
+            return random -> -mean * Math.log(1 - random.nextDouble());
+        }
+
+        /**
+         * Pareto con valor mínimo {@code scale} y forma {@code shape}: la mayoría de los valores son cercanos al
+         * mínimo, pero hay una cola larga de valores muy grandes (con {@code shape <= 1} la media es infinita).
+         */
+        static Distribution pareto(double scale, double shape) {
+            if (!(scale > 0) || !(shape > 0)) {
+                throw new IllegalArgumentException("La escala y la forma deben ser positivas");
+            }
+            return random -> scale / Math.pow(1 - random.nextDouble(), 1 / shape);
+        }
+
+        /** Mezcla de dos distribuciones: con probabilidad {@code probability} se usa {@code second}. */
+        static Distribution bimodal(double probability, Distribution first, Distribution second) {
+            if (!(probability >= 0 && probability <= 1)) {
+                throw new IllegalArgumentException("La probabilidad debe estar entre 0 y 1: " + probability);
+            }
+            return random -> random.nextDouble() < probability ? second.sample(random) : first.sample(random);
+        }
+
+        /**
+         * Interpreta una distribución escrita en la línea de comandos:
+         * <ul>
+         *     <li>{@code const:V}</li>
+         *     <li>{@code uniform:MIN:MAX}</li>
+         *     <li>{@code exp:MEDIA}</li>
+         *     <li>{@code poisson:TASA}, separaciones exponenciales con media {@code 1 / TASA}</li>
+         *     <li>{@code pareto:ESCALA:FORMA}</li>
+         *     <li>{@code bimodal:P:MEDIA1:MEDIA2}, exponencial con media {@code MEDIA2} con probabilidad {@code P}
+         *     y con media {@code MEDIA1} en los demás casos</li>
+         * </ul>
+         */
+        static Distribution parse(String spec) {
+            String[] parts = spec.trim().toLowerCase(Locale.ROOT).split(":");
+            try {
+                switch (parts[0]) {
+                    case "const":
+                        requireParameters(spec, parts, 1);
+                        return constant(Double.parseDouble(parts[1]));
+                    case "uniform":
+                        requireParameters(spec, parts, 2);
+                        return uniform(Integer.parseInt(parts[1]), Integer.parseInt(parts[2]));
+                    case "exp":
+                        requireParameters(spec, parts, 1);
+                        return exponential(Double.parseDouble(parts[1]));
+                    case "poisson":
+                        requireParameters(spec, parts, 1);
+                        return exponential(1 / Double.parseDouble(parts[1]));
+                    case "pareto":
+                        requireParameters(spec, parts, 2);
+                        return pareto(Double.parseDouble(parts[1]), Double.parseDouble(parts[2]));
+                    case "bimodal":
+                        requireParameters(spec, parts, 3);
+                        return bimodal(Double.parseDouble(parts[1]), exponential(Double.parseDouble(parts[2])),
+                                exponential(Double.parseDouble(parts[3])));
+                    default:
+                        throw new IllegalArgumentException("Distribución desconocida: " + spec);
+                }
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Número inválido en la distribución: " + spec);
+            }
+        }
+
+        private static void requireParameters(String spec, String[] parts, int count) {
+            if (parts.length != count + 1) {
+                throw new IllegalArgumentException("La distribución " + spec + " necesita " + count + " parámetros");
+            }
+        }
+    }
+
+    private final long seed;
+    private Distribution arrivalGaps = Distribution.uniform(0, 2);
+    private Distribution durations = Distribution.uniform(2, 6);
+    private Distribution sizes = Distribution.uniform(10, 509);
+
+    public WorkloadGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /** @return Un generador con las mismas distribuciones y otra semilla. */
+    public WorkloadGenerator withSeed(long seed) {
+        return new WorkloadGenerator(seed).setArrivalGaps(arrivalGaps).setDurations(durations).setSizes(sizes);
+    }
+
+    /** Distribución de la separación entre una llegada y la siguiente, en segundos. */
+    public WorkloadGenerator setArrivalGaps(Distribution arrivalGaps) {
+        this.arrivalGaps = arrivalGaps;
+        return this;
+    }
+
+    /** Distribución de la duración de cada proceso, en segundos. */
+    public WorkloadGenerator setDurations(Distribution durations) {
+        this.durations = durations;
+        return this;
+    }
+
+    /** Distribución del tamaño de cada proceso, en KB. */
+    public WorkloadGenerator setSizes(Distribution sizes) {
+        this.sizes = sizes;
+        return this;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    /**
+     * Genera {@code count} procesos con pids de 1 a {@code count}, ordenados por llegada, usando todos los hilos
+     * del {@link java.util.concurrent.ForkJoinPool} actual.
+     */
+    public List<Process> generate(int count) {
+        Process[] processes = new Process[count];
+        Chunk[] chunks = createChunks(new SplittableRandom(seed), 1, count);
+        prepare(chunks, 0);
+        IntStream.range(0, chunks.length).parallel()
+                .forEach(c -> chunks[c].emit(processes, (int) (chunks[c].firstPid - 1)));
+        return Arrays.asList(processes);
+    }
+
+    /**
+     * Escribe {@code count} procesos en una traza binaria sin tenerlos todos en memoria: se generan en paralelo
+     * de {@value #CHUNKS_PER_BATCH} bloques en {@value #CHUNKS_PER_BATCH} bloques y se escriben en orden. La traza
+     * es la misma que la lista de {@link #generate(int)} con la misma semilla.
+     */
+    public void writeTrace(long count, TraceWriter writer) throws IOException {
+        SplittableRandom root = new SplittableRandom(seed);
+        Process[] batch = new Process[CHUNK_SIZE * CHUNKS_PER_BATCH];
+        double startTime = 0;
+        for (long firstPid = 1; firstPid <= count; firstPid += batch.length) {
+            int batchCount = (int) Math.min(batch.length, count - firstPid + 1);
+            Chunk[] chunks = createChunks(root, firstPid, batchCount);
+            startTime = prepare(chunks, startTime);
+            IntStream.range(0, chunks.length).parallel().forEach(c -> chunks[c].emit(batch, c * CHUNK_SIZE));
+            for (int i = 0; i < batchCount; i++) {
+                writer.write(batch[i]);
+                batch[i] = null;
+            }
+        }
+    }
+
+    /** Divide {@code count} procesos en bloques, derivando en orden las semillas de cada uno. */
+    private Chunk[] createChunks(SplittableRandom root, long firstPid, int count) {
+        Chunk[] chunks = new Chunk[(count + CHUNK_SIZE - 1) / CHUNK_SIZE];
+        for (int c = 0; c < chunks.length; c++) {
+            int size = Math.min(CHUNK_SIZE, count - c * CHUNK_SIZE);
+            chunks[c] = new Chunk(firstPid + (long) c * CHUNK_SIZE, size, root.nextLong(), root.nextLong());
+        }
+        return chunks;
+    }
+
+    /**
+     * Suma en paralelo las separaciones de cada bloque y acumula en orden el tiempo en que empieza cada uno.
+     *
+     * @return El tiempo en que empezaría el bloque siguiente.
+     */
+    private double prepare(Chunk[] chunks, double startTime) {
+        IntStream.range(0, chunks.length).parallel().forEach(c -> chunks[c].sumGaps());
+        for (Chunk chunk : chunks) {
+            chunk.startTime = startTime;
+            startTime += chunk.totalGap;
+        }
+        return startTime;
+    }
+
+    /**
+     * Un bloque de procesos consecutivos. Las separaciones y los demás atributos usan generadores distintos para
+     * poder sumar las separaciones sin generar el resto, y volver a recorrerlas después con la misma semilla.
+     */
+    private final class Chunk {
+        final long firstPid;
+        final int count;
+        final long gapSeed;
+        final long attributeSeed;
+        double totalGap;
+        double startTime;
+
+        Chunk(long firstPid, int count, long gapSeed, long attributeSeed) {
+            this.firstPid = firstPid;
+            this.count = count;
+            this.gapSeed = gapSeed;
+            this.attributeSeed = attributeSeed;
+        }
+
+        void sumGaps() {
+            SplittableRandom gaps = new SplittableRandom(gapSeed);
+            double total = 0;
+            for (int i = 0; i < count; i++) {
+                total += Math.max(arrivalGaps.sample(gaps), 0);
+            }
+            totalGap = total;
+        }
+
+        void emit(Process[] target, int offset) {
+            SplittableRandom gaps = new SplittableRandom(gapSeed);
+            SplittableRandom attributes = new SplittableRandom(attributeSeed);
+            double local = 0;
+            for (int i = 0; i < count; i++) {
+                int arrival = (int) Math.min(Math.floor(startTime + local), Integer.MAX_VALUE);
+                Process p = new Process((int) (firstPid + i), arrival, (int) clamp(durations.sample(attributes), 1));
+                p.setSize((int) clamp(sizes.sample(attributes), 0));
+                target[offset + i] = p;
+                local += Math.max(arrivalGaps.sample(gaps), 0);
+            }
+        }
+    }
+
+    private static long clamp(double value, int min) {
+        return Math.max(min, Math.min(Integer.MAX_VALUE, Math.round(value)));
+    }
+}
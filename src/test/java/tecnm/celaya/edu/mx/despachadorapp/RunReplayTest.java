@@ -0,0 +1,188 @@
+package tecnm.celaya.edu.mx.despachadorapp;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ida y vuelta de las grabaciones: una corrida grabada con {@link RunRecorder} y reproducida con
+ * {@link RunReplay} debe mostrar en cualquier tick lo mismo que el motor, y una grabación que no terminó no se
+ * debe poder abrir.
+ */
+class RunReplayTest {
+
+    @TempDir
+    Path directory;
+
+    @TestFactory
+    Stream<DynamicTest> replayMatchesEngine() {
+        return Arrays.stream(Algorithm.values())
+                .map(algorithm -> DynamicTest.dynamicTest(algorithm.name(), () -> checkReplay(algorithm)));
+    }
+
+    private void checkReplay(Algorithm algorithm) throws IOException {
+        Random random = new Random(1 + algorithm.ordinal());
+        for (int round = 0; round < 12; round++) {
+            // La última ronda graba más eventos de los que caben en una ventana mapeada.
+            int count = round < 11 ? 1 + random.nextInt(40) : 30_000;
+            List<Process> workload = new WorkloadGenerator(random.nextLong())
+                    .setArrivalGaps(WorkloadGenerator.Distribution.uniform(0, random.nextInt(4)))
+                    .setSizes(WorkloadGenerator.Distribution.uniform(1, 1200))
+                    .generate(count);
+            Path file = directory.resolve(algorithm + "-" + round + ".run");
+            long events = RunRecorder.record(file, algorithm, workload);
+            RunReplay replay = RunReplay.open(file, algorithm);
+            assertEquals(events, replay.getEventCount());
+            assertTrue(round < 11 || events > RunRecorder.WINDOW_RECORDS);
+
+            List<Process> engineProcesses = Process.copyAll(workload);
+            SimulationEngine engine = new SimulationEngine(algorithm);
+            engine.load(engineProcesses);
+            int end = replay.getEndTick() + 2;
+            for (int k = 0; k < 200; k++) {
+                // Saltos al azar mezclados con pasos cortos hacia adelante y hacia atrás.
+                int tick = k % 3 == 0 ? random.nextInt(end + 1) - 1
+                        : Math.min(end, Math.max(-1, replay.getTime() + random.nextInt(5) - 1));
+                engine.seek(tick);
+                replay.seek(tick);
+                String context = algorithm + " con " + count + " procesos en el tick " + tick;
+                assertSameSnapshot(engine.snapshot(), replay.snapshot(), context);
+                for (int i = 0; i < count; i++) {
+                    Process expected = engineProcesses.get(i);
+                    Process actual = replay.getProcesses().get(i);
+                    assertEquals(expected.getState(), actual.getState(), context + ", estado del proceso " + i);
+                    assertEquals(expected.getRemainingDuration(), actual.getRemainingDuration(),
+                            context + ", duración restante del proceso " + i);
+                }
+            }
+        }
+    }
+
+    private static void assertSameSnapshot(SimulationSnapshot expected, SimulationSnapshot actual, String context) {
+        assertEquals(expected.getTime(), actual.getTime(), context);
+        assertEquals(pid(expected.getCpuProcess()), pid(actual.getCpuProcess()), context + ", CPU");
+        assertEquals(expected.getQuantumCounter(), actual.getQuantumCounter(), context + ", quantum");
+        assertEquals(pids(expected.getReadyProcesses()), pids(actual.getReadyProcesses()), context + ", listos");
+        assertEquals(pids(expected.getFinishedProcesses()), pids(actual.getFinishedProcesses()),
+                context + ", finalizados");
+        assertEquals(expected.isFinished(), actual.isFinished(), context);
+        assertEquals(expected.getMemorySlotCount(), actual.getMemorySlotCount(), context);
+        for (int s = 0; s < expected.getMemorySlotCount(); s++) {
+            String slot = context + ", marco " + s;
+            assertEquals(pid(expected.getMemorySlot(s)), pid(actual.getMemorySlot(s)), slot);
+            assertEquals(expected.getFragment(s), actual.getFragment(s), slot);
+            assertEquals(expected.getUsedSpace(s), actual.getUsedSpace(s), slot);
+            assertEquals(expected.getFreeSpace(s), actual.getFreeSpace(s), slot);
+        }
+    }
+
+    @Test
+    void replayKeepsRecordedMemoryLayout() throws IOException {
+        int[][] layouts = {{16, 128}, {5, 512}};
+        for (int[] layout : layouts) {
+            int frames = layout[0];
+            int pageSize = layout[1];
+            List<Process> workload = new WorkloadGenerator(frames)
+                    .setSizes(WorkloadGenerator.Distribution.uniform(1, frames * pageSize / 2))
+                    .generate(300);
+            Path file = directory.resolve("memoria-" + frames + "x" + pageSize + ".run");
+            List<Process> recorded = Process.copyAll(workload);
+            SimulationEngine recording = new SimulationEngine(Algorithm.LIFO, 64, 0, frames, pageSize);
+            try (RunRecorder recorder = new RunRecorder(file, Algorithm.LIFO, recorded, frames, pageSize)) {
+                recording.setListener(recorder);
+                recording.load(recorded);
+                assertTrue(recording.runToCompletion());
+                recorder.finish();
+            }
+
+            RunReplay replay = RunReplay.open(file, Algorithm.LIFO);
+            assertEquals(frames, replay.getMemoryFrames());
+            assertEquals(pageSize, replay.getPageSize());
+
+            SimulationEngine engine = new SimulationEngine(Algorithm.LIFO, 64, 16, frames, pageSize);
+            engine.load(Process.copyAll(workload));
+            Random random = new Random(frames);
+            for (int k = 0; k < 100; k++) {
+                int tick = random.nextInt(replay.getEndTick() + 1);
+                engine.seek(tick);
+                replay.seek(tick);
+                SimulationSnapshot snapshot = replay.snapshot();
+                assertEquals(frames, snapshot.getMemorySlotCount());
+                assertSameSnapshot(engine.snapshot(), snapshot, frames + "x" + pageSize + " en el tick " + tick);
+            }
+        }
+    }
+
+    @Test
+    void unfinishedRecordingIsRejected() throws IOException {
+        List<Process> workload = new WorkloadGenerator(1).generate(50);
+        Path file = directory.resolve("incompleta.run");
+        try (RunRecorder recorder = new RunRecorder(file, Algorithm.FIFO, workload, 8, 256)) {
+            SimulationEngine engine = new SimulationEngine(Algorithm.FIFO, 64, 0);
+            engine.setListener(recorder);
+            engine.load(workload);
+            engine.seek(20);
+            assertTrue(recorder.getCount() > 0);
+            // Se cierra sin finish(), como si la corrida hubiera fallado.
+        }
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> RunReplay.open(file, Algorithm.FIFO));
+        assertTrue(e.getMessage().contains("incompleta"), e.getMessage());
+    }
+
+    @Test
+    void failedRecordingIsDeleted() {
+        SchedulingPolicy failing = new SchedulingPolicy() {
+            @Override
+            public String getName() {
+                return "FALLA";
+            }
+
+            @Override
+            public Comparator<Process> getReadyOrder() {
+                return (a, b) -> {
+                    throw new IllegalStateException("falla de prueba");
+                };
+            }
+        };
+        Path file = directory.resolve("fallida.run");
+        assertThrows(IllegalStateException.class,
+                () -> RunRecorder.record(file, failing, new WorkloadGenerator(2).generate(10)));
+        assertFalse(Files.exists(file));
+    }
+
+    @Test
+    void recordingOfAnotherPolicyIsRejected() throws IOException {
+        Path file = directory.resolve("sjf.run");
+        RunRecorder.record(file, Algorithm.SJF, new WorkloadGenerator(3).generate(10));
+        assertThrows(IllegalArgumentException.class, () -> RunReplay.open(file, Algorithm.LJF));
+    }
+
+    private static Integer pid(Process p) {
+        return p == null ? null : p.getPid();
+    }
+
+    private static List<Integer> pids(List<Process> processes) {
+        List<Integer> pids = new ArrayList<>(processes.size());
+        for (Process p : processes) {
+            pids.add(p.getPid());
+        }
+        return pids;
+    }
+}
@@ -0,0 +1,349 @@
+package tecnm.celaya.edu.mx.despachadorapp;
+
+import org.junit.jupiter.api.DynamicTest;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compara {@link SimulationEngine} con la semántica original de los controladores, que recalculaban cada tick
+ * simulando desde cero. El modelo de referencia de esta clase es una copia directa de ese recálculo, así que
+ * cualquier diferencia en el estado visible (CPU, quantum, cola de listos, finalizados, estado y ubicación de
+ * cada proceso y, en LIFO, los marcos de memoria) es una regresión del motor incremental.
+ * <p>
+ * Los motores se crean con checkpoints muy frecuentes y un anillo muy pequeño, para que los saltos al azar
+ * restauren checkpoints, re-simulen desde el inicio y recorran la ventana de re-ejecución.
+ */
+class SimulationEngineTest {
+
+    private static final int ROUNDS = 150;
+    private static final int SEEKS_PER_ROUND = 30;
+
+    /** Marcos de la memoria paginada de LIFO y su tamaño en KB, como en los controladores originales. */
+    private static final int FRAMES = 8;
+    private static final int FRAME_KB = 256;
+
+    @TestFactory
+    Stream<DynamicTest> matchesTickByTickReference() {
+        return Arrays.stream(Algorithm.values())
+                .map(algorithm -> DynamicTest.dynamicTest(algorithm.name(), () -> checkAgainstReference(algorithm)));
+    }
+
+    private static void checkAgainstReference(Algorithm algorithm) {
+        Random random = new Random(42 + algorithm.ordinal());
+        for (int round = 0; round < ROUNDS; round++) {
+            int[][] workload = workload(random, algorithm, 1 + random.nextInt(12), 1 + random.nextInt(4));
+            List<Process> processes = new ArrayList<>();
+            for (int[] row : workload) {
+                Process p = new Process(row[0], row[1], row[2]);
+                p.setSize(row[3]);
+                processes.add(p);
+            }
+            SimulationEngine engine = new SimulationEngine(algorithm, 1 + random.nextInt(5), 1 + random.nextInt(4));
+            engine.load(processes);
+
+            int end = workload[workload.length - 1][1] + Arrays.stream(workload).mapToInt(row -> row[2]).sum() + 3;
+            String context = algorithm + " " + Arrays.deepToString(workload);
+            for (int tick = 0; tick <= end; tick++) {
+                engine.seek(tick);
+                assertEquals(reference(algorithm, workload, tick), describe(algorithm, engine, processes),
+                        context + " al avanzar al tick " + tick);
+            }
+            for (int k = 0; k < SEEKS_PER_ROUND; k++) {
+                int tick = random.nextInt(end + 1);
+                engine.seek(tick);
+                assertEquals(reference(algorithm, workload, tick), describe(algorithm, engine, processes),
+                        context + " al saltar al tick " + tick);
+            }
+        }
+    }
+
+    /**
+     * Con cientos de miles de procesos en memoria a la vez cada checkpoint copia a casi todos. La memoria de los
+     * checkpoints no debe pasar del límite del motor y los saltos deben seguir dando el mismo estado que un motor
+     * sin checkpoints.
+     */
+    @Test
+    void checkpointMemoryStaysBoundedWithSimultaneousArrivals() {
+        int count = 200_000;
+        long maxBytes = 2L << 20; // Cabe un solo checkpoint de la cola completa.
+        SimulationEngine engine = new SimulationEngine(Algorithm.FIFO, SimulationEngine.DEFAULT_CHECKPOINT_INTERVAL,
+                SimulationEngine.DEFAULT_CHECKPOINT_CAPACITY, FRAMES, FRAME_KB, maxBytes);
+        SimulationEngine reference = new SimulationEngine(Algorithm.FIFO, SimulationEngine.DEFAULT_CHECKPOINT_INTERVAL, 0);
+        engine.load(simultaneousArrivals(count));
+        reference.load(simultaneousArrivals(count));
+
+        int end = engine.getEndTickBound();
+        for (int tick = 0; tick <= end; tick += 997) {
+            engine.seek(tick);
+            assertTrue(engine.getCheckpointBytes() <= maxBytes, "checkpoints en el tick " + tick);
+        }
+        assertTrue(engine.getCheckpointBytes() > 0, "no se guardó ningún checkpoint");
+
+        Random random = new Random(3);
+        for (int k = 0; k < 10; k++) {
+            int tick = random.nextInt(end + 1);
+            engine.seek(tick);
+            reference.seek(tick);
+            assertTrue(engine.getCheckpointBytes() <= maxBytes);
+            String context = "tick " + tick;
+            assertEquals(reference.getTime(), engine.getTime(), context);
+            assertEquals(pid(reference.getCpuProcess()), pid(engine.getCpuProcess()), context);
+            assertEquals(reference.getQuantumCounter(), engine.getQuantumCounter(), context);
+            assertEquals(reference.getFinishedProcesses().size(), engine.getFinishedProcesses().size(), context);
+            List<Process> expectedReady = reference.getReadyProcesses();
+            List<Process> actualReady = engine.getReadyProcesses();
+            assertEquals(expectedReady.size(), actualReady.size(), context);
+            for (int i = 0; i < Math.min(100, expectedReady.size()); i++) {
+                assertEquals(expectedReady.get(i).getPid(), actualReady.get(i).getPid(), context);
+            }
+        }
+    }
+
+    /**
+     * Una carga puede repetir pid y duración, y SJF y LJF no distinguen esos procesos: se despacha primero el que
+     * entró antes a la cola. Restaurar un checkpoint debe conservar ese desempate.
+     */
+    @Test
+    void tiedProcessesKeepEntryOrderAcrossSeeks() {
+        for (Algorithm algorithm : new Algorithm[]{Algorithm.SJF, Algorithm.LJF}) {
+            List<Process> engineProcesses = tiedWorkload();
+            List<Process> referenceProcesses = tiedWorkload();
+            SimulationEngine engine = new SimulationEngine(algorithm, 2, 4);
+            SimulationEngine reference = new SimulationEngine(algorithm, 2, 0);
+            engine.load(engineProcesses);
+            reference.load(referenceProcesses);
+
+            Random random = new Random(algorithm.ordinal());
+            int end = engine.getEndTickBound();
+            for (int k = 0; k < 300; k++) {
+                int tick = random.nextInt(end + 1);
+                engine.seek(tick);
+                reference.seek(tick);
+                for (int i = 0; i < engineProcesses.size(); i++) {
+                    String context = algorithm + " en el tick " + tick + ", proceso " + i;
+                    assertEquals(referenceProcesses.get(i).getState(), engineProcesses.get(i).getState(), context);
+                    assertEquals(referenceProcesses.get(i).getRemainingDuration(),
+                            engineProcesses.get(i).getRemainingDuration(), context);
+                }
+            }
+        }
+    }
+
+    /** Tres grupos de procesos con el mismo pid y la misma duración, que llegan en desorden. */
+    private static List<Process> tiedWorkload() {
+        List<Process> processes = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            processes.add(new Process(1 + i % 3, i / 2, 2 + i % 3));
+        }
+        return processes;
+    }
+
+    private static List<Process> simultaneousArrivals(int count) {
+        List<Process> processes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            processes.add(new Process(i + 1, 0, 1 + i % 5));
+        }
+        return processes;
+    }
+
+    private static Integer pid(Process p) {
+        return p == null ? null : p.getPid();
+    }
+
+    /** Filas {@code pid, llegada, duración, tamaño} en orden de llegada, con pids distintos. */
+    private static int[][] workload(Random random, Algorithm algorithm, int count, int maxGap) {
+        int[][] workload = new int[count][];
+        int arrival = 0;
+        for (int i = 0; i < count; i++) {
+            int duration = algorithm == Algorithm.ROUND_ROBIN_LIFO ? random.nextInt(6) + 3 : random.nextInt(5) + 2;
+            int size = algorithm == Algorithm.LIFO ? random.nextInt(500) + 10 : 0;
+            workload[i] = new int[]{i + 1, arrival, duration, size};
+            arrival += random.nextInt(maxGap + 1);
+        }
+        return workload;
+    }
+
+    private static String describe(Algorithm algorithm, SimulationEngine engine, List<Process> processes) {
+        StringBuilder text = new StringBuilder();
+        Process cpu = engine.getCpuProcess();
+        text.append("cpu=").append(cpu == null ? "-" : cpu.getPid() + "/" + engine.getQuantumCounter());
+        text.append(" listos=");
+        for (Process p : engine.getReadyProcesses()) {
+            text.append(p.getPid()).append(',');
+        }
+        text.append(" finalizados=");
+        for (Process p : engine.getFinishedProcesses()) {
+            text.append(p.getPid()).append(',');
+        }
+        text.append(" procesos=");
+        for (Process p : processes) {
+            text.append(p.getPid()).append(':').append(p.getState().getCode()).append(':').append(p.getLocation())
+                    .append(':').append(p.getRemainingDuration()).append(' ');
+        }
+        if (algorithm == Algorithm.LIFO) {
+            text.append(" marcos=");
+            for (Process owner : engine.getMemorySlots()) {
+                text.append(owner == null ? "-" : String.valueOf(owner.getPid())).append(',');
+            }
+        }
+        return text.toString();
+    }
+
+    /** Proceso del modelo de referencia. */
+    private static final class ReferenceProcess {
+        final int pid;
+        final int arrival;
+        final int duration;
+        final int size;
+        int remaining;
+        String state = "";
+        String location = "";
+
+        ReferenceProcess(int[] row) {
+            pid = row[0];
+            arrival = row[1];
+            duration = row[2];
+            size = row[3];
+            remaining = duration;
+        }
+    }
+
+    /** El estado en {@code timer} según el recálculo desde cero de los controladores originales. */
+    private static String reference(Algorithm algorithm, int[][] workload, int timer) {
+        List<ReferenceProcess> processes = new ArrayList<>();
+        for (int[] row : workload) {
+            processes.add(new ReferenceProcess(row));
+        }
+        LinkedList<ReferenceProcess> queue = new LinkedList<>();
+        List<ReferenceProcess> finished = new ArrayList<>();
+        ReferenceProcess[] frames = new ReferenceProcess[FRAMES];
+        Comparator<ReferenceProcess> shortestFirst = Comparator.comparingInt(p -> p.duration);
+        ReferenceProcess cpu = null;
+        int quantumCounter = 0;
+
+        for (int tick = 0; tick <= timer; tick++) {
+            if (algorithm == Algorithm.LIFO) {
+                for (ReferenceProcess p : processes) {
+                    if (p.arrival > tick || !p.state.isEmpty()) {
+                        continue;
+                    }
+                    int needed = (int) Math.ceil((double) p.size / FRAME_KB);
+                    List<Integer> free = new ArrayList<>();
+                    for (int i = 0; i < FRAMES; i++) {
+                        if (frames[i] == null) {
+                            free.add(i);
+                        }
+                    }
+                    if (free.size() >= needed) {
+                        for (int i = 0; i < needed; i++) {
+                            frames[free.get(i)] = p;
+                        }
+                        p.location = "Memoria";
+                        p.state = "M";
+                        queue.push(p);
+                    }
+                }
+            } else {
+                for (ReferenceProcess p : processes) {
+                    if (p.arrival != tick || p.state.equals("F")) {
+                        continue;
+                    }
+                    p.location = "Memoria";
+                    p.state = "W";
+                    if (algorithm == Algorithm.ROUND_ROBIN_LIFO) {
+                        queue.remove(p);
+                        queue.addFirst(p);
+                    } else if (!queue.contains(p)) {
+                        queue.add(p);
+                    }
+                }
+            }
+
+            if (algorithm == Algorithm.ROUND_ROBIN_LIFO && cpu != null && quantumCounter >= SimulationEngine.QUANTUM) {
+                if (cpu.remaining > 0) {
+                    cpu.location = "Memoria";
+                    cpu.state = "W";
+                    queue.addFirst(cpu);
+                }
+                cpu = null;
+            }
+
+            if (cpu == null && !queue.isEmpty()) {
+                switch (algorithm) {
+                    case SJF:
+                        queue.sort(shortestFirst);
+                        cpu = queue.remove(0);
+                        break;
+                    case LJF:
+                        queue.sort(shortestFirst.reversed());
+                        cpu = queue.remove(0);
+                        break;
+                    case LIFO:
+                        cpu = queue.pop();
+                        for (int i = 0; i < FRAMES; i++) {
+                            if (frames[i] == cpu) {
+                                frames[i] = null;
+                            }
+                        }
+                        break;
+                    default:
+                        cpu = queue.removeFirst();
+                }
+                cpu.location = "CPU";
+                cpu.state = "X";
+                quantumCounter = 0;
+            }
+
+            if (cpu != null) {
+                cpu.remaining--;
+                quantumCounter++;
+                if (cpu.remaining <= 0) {
+                    cpu.state = "F";
+                    cpu.location = "Salida";
+                    finished.add(cpu);
+                    cpu = null;
+                }
+            }
+        }
+
+        StringBuilder text = new StringBuilder();
+        text.append("cpu=").append(cpu == null ? "-" : cpu.pid + "/" + quantumCounter);
+        List<ReferenceProcess> ready = new ArrayList<>(queue);
+        if (algorithm == Algorithm.SJF) {
+            ready.sort(shortestFirst);
+        } else if (algorithm == Algorithm.LJF) {
+            ready.sort(shortestFirst.reversed());
+        }
+        text.append(" listos=");
+        for (ReferenceProcess p : ready) {
+            text.append(p.pid).append(',');
+        }
+        text.append(" finalizados=");
+        for (ReferenceProcess p : finished) {
+            text.append(p.pid).append(',');
+        }
+        text.append(" procesos=");
+        for (ReferenceProcess p : processes) {
+            text.append(p.pid).append(':').append(p.state).append(':').append(p.location).append(':')
+                    .append(p.remaining).append(' ');
+        }
+        if (algorithm == Algorithm.LIFO) {
+            text.append(" marcos=");
+            for (ReferenceProcess owner : frames) {
+                text.append(owner == null ? "-" : String.valueOf(owner.pid)).append(',');
+            }
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,158 @@
+package tecnm.celaya.edu.mx.despachadorapp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Ida y vuelta de las trazas: lo que escriben {@link TraceWriter} o un CSV se lee igual con {@link TraceReader},
+ * incluso cuando cruza los límites de los bloques y ventanas de lectura, y el motor simula igual una traza en
+ * streaming que la lista completa.
+ */
+class TraceReaderTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void binaryTraceRoundTrip() throws IOException {
+        // Más procesos que el buffer del escritor, para que se escriba en varios bloques.
+        List<Process> workload = new WorkloadGenerator(7).generate(20_000);
+        Path trace = directory.resolve("carga.trc");
+        try (TraceWriter writer = new TraceWriter(trace)) {
+            for (Process p : workload) {
+                writer.write(p);
+            }
+            assertEquals(workload.size(), writer.getCount());
+        }
+        assertSameWorkload(workload, BatchApplication.readWorkload(trace));
+    }
+
+    @Test
+    void generatorTraceMatchesGeneratedList() throws IOException {
+        int count = 3 * WorkloadGenerator.CHUNK_SIZE + 123;
+        WorkloadGenerator generator = new WorkloadGenerator(11);
+        Path trace = directory.resolve("generada.trc");
+        try (TraceWriter writer = new TraceWriter(trace)) {
+            generator.writeTrace(count, writer);
+        }
+        assertSameWorkload(generator.generate(count), BatchApplication.readWorkload(trace));
+    }
+
+    @Test
+    void csvTraceRoundTrip() throws IOException {
+        // Más de un bloque de lectura, con saltos de línea de Windows y tamaños opcionales.
+        List<Process> workload = new WorkloadGenerator(3).generate(40_000);
+        StringBuilder csv = new StringBuilder("# carga de prueba\r\npid,llegada,duracion,tamano\r\n\r\n");
+        for (int i = 0; i < workload.size(); i++) {
+            Process p = workload.get(i);
+            csv.append(p.getPid()).append(", ").append(p.getArrivalTime()).append(',').append(p.getDuration());
+            if (i % 2 == 0) {
+                csv.append(',').append(p.getSize());
+            } else {
+                p.setSize(0);
+                csv.append(',');
+            }
+            csv.append(i % 3 == 0 ? "\n" : "\r\n");
+        }
+        csv.setLength(csv.length() - 1); // La última línea no termina en salto de línea.
+        Path trace = directory.resolve("carga.csv");
+        Files.writeString(trace, csv, StandardCharsets.UTF_8);
+        assertTrue(Files.size(trace) > TraceReader.CSV_CHUNK_BYTES);
+
+        assertSameWorkload(workload, BatchApplication.readWorkload(trace));
+    }
+
+    @Test
+    void emptyCsvHasNoProcesses() throws IOException {
+        Path trace = directory.resolve("vacia.csv");
+        Files.writeString(trace, "pid,llegada,duracion\n# sin procesos\n");
+        assertTrue(BatchApplication.readWorkload(trace).isEmpty());
+    }
+
+    @Test
+    void csvErrorsReportTheLine() throws IOException {
+        Path badNumber = directory.resolve("numero.csv");
+        Files.writeString(badNumber, "1,0,3\n2,1,x\n");
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class,
+                () -> BatchApplication.readWorkload(badNumber));
+        assertTrue(e.getMessage().contains(":2: número inválido"), e.getMessage());
+
+        Path missingColumn = directory.resolve("columnas.csv");
+        Files.writeString(missingColumn, "1,0,3\n\n2,1\n");
+        e = assertThrows(IllegalArgumentException.class, () -> BatchApplication.readWorkload(missingColumn));
+        assertTrue(e.getMessage().contains(":3: se esperaban al menos 3 columnas"), e.getMessage());
+    }
+
+    @Test
+    void truncatedBinaryTraceIsRejected() throws IOException {
+        Path trace = directory.resolve("truncada.trc");
+        try (TraceWriter writer = new TraceWriter(trace)) {
+            writer.write(new Process(1, 0, 5));
+        }
+        byte[] bytes = Files.readAllBytes(trace);
+        Files.write(trace, Arrays.copyOf(bytes, bytes.length - 1));
+        assertThrows(IllegalArgumentException.class, () -> TraceReader.open(trace));
+    }
+
+    @Test
+    void streamedTraceSimulatesLikeLoadedList() throws IOException {
+        // Más llegadas que la ventana del motor, para que la rellene varias veces.
+        List<Process> workload = new WorkloadGenerator(5).generate(5 * SimulationEngine.STREAM_WINDOW + 17);
+        Path trace = directory.resolve("stream.trc");
+        try (TraceWriter writer = new TraceWriter(trace)) {
+            for (Process p : workload) {
+                writer.write(p);
+            }
+        }
+        for (Algorithm algorithm : Algorithm.values()) {
+            List<String> expected = finishOrder(algorithm, Process.copyAll(workload), null);
+            try (TraceReader reader = TraceReader.open(trace)) {
+                assertEquals(expected, finishOrder(algorithm, null, reader), algorithm.name());
+            }
+        }
+    }
+
+    /** Simula hasta el final, de la lista o de la traza, y devuelve {@code pid@tick} de cada finalización. */
+    private static List<String> finishOrder(Algorithm algorithm, List<Process> list, TraceReader stream) {
+        List<String> finishes = new ArrayList<>();
+        SimulationEngine engine = new SimulationEngine(algorithm, SimulationEngine.DEFAULT_CHECKPOINT_INTERVAL, 0);
+        engine.setListener(new SimulationListener() {
+            @Override
+            public void onFinished(Process p, int tick) {
+                finishes.add(p.getPid() + "@" + tick);
+            }
+        });
+        if (list != null) {
+            engine.load(list);
+        } else {
+            engine.loadStream(stream);
+        }
+        assertTrue(engine.runToCompletion());
+        return finishes;
+    }
+
+    private static void assertSameWorkload(List<Process> expected, List<Process> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            Process e = expected.get(i);
+            Process a = actual.get(i);
+            String row = "proceso " + i;
+            assertEquals(e.getPid(), a.getPid(), row);
+            assertEquals(e.getArrivalTime(), a.getArrivalTime(), row);
+            assertEquals(e.getDuration(), a.getDuration(), row);
+            assertEquals(e.getSize(), a.getSize(), row);
+        }
+    }
+}